@@ -0,0 +1,79 @@
+--liquibase formatted sql
+
+--changeset caselab:20
+CREATE TABLE IF NOT EXISTS stored_content
+(
+    name       TEXT        NOT NULL,
+    size       BIGINT,
+    ref_count  INTEGER     NOT NULL DEFAULT 0,
+    touched_at timestamptz NOT NULL DEFAULT now(),
+
+    PRIMARY KEY (name)
+);
+
+CREATE INDEX IF NOT EXISTS stored_content_garbage_idx ON stored_content (touched_at) WHERE ref_count = 0;
+
+INSERT INTO stored_content(name, ref_count)
+SELECT content_name, count(*)
+FROM document_version
+WHERE content_name IS NOT NULL
+GROUP BY content_name
+ON CONFLICT (name) DO NOTHING;
+
+--changeset caselab:21 splitStatements:false
+CREATE OR REPLACE FUNCTION stored_content_ref_count() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.content_name IS NOT NULL THEN
+        UPDATE stored_content
+        SET ref_count  = ref_count - 1,
+            touched_at = now()
+        WHERE name = OLD.content_name;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.content_name IS NOT NULL THEN
+        UPDATE stored_content
+        SET ref_count = ref_count + 1
+        WHERE name = NEW.content_name;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS document_version_stored_content_ref_count ON document_version;
+CREATE TRIGGER document_version_stored_content_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF content_name
+    ON document_version
+    FOR EACH ROW
+EXECUTE FUNCTION stored_content_ref_count();
+
+--changeset caselab:22
+UPDATE voting_process
+SET status = CASE status
+                 WHEN '0' THEN 'ACCEPTED'
+                 WHEN '1' THEN 'DENIED'
+                 WHEN '2' THEN 'IN_PROGRESS'
+                 ELSE status
+    END;
+
+CREATE INDEX IF NOT EXISTS voting_process_in_progress_deadline_idx
+    ON voting_process (deadline) WHERE status = 'IN_PROGRESS';
+
+--changeset caselab:23
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGSERIAL   NOT NULL,
+    sender          TEXT        NOT NULL,
+    recipient       TEXT        NOT NULL,
+    subject         TEXT        NOT NULL,
+    text            TEXT        NOT NULL,
+    attachments     TEXT[],
+    status          TEXT        NOT NULL,
+    attempts        INTEGER     NOT NULL DEFAULT 0,
+    next_attempt_at timestamptz NOT NULL,
+    created_at      timestamptz NOT NULL,
+    last_error      TEXT,
+
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS email_outbox_pending_idx ON email_outbox (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset caselab:24
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- STARTS_WITH: LIKE 'abc%' по B-tree с text_pattern_ops не зависит от сортировки базы
+CREATE INDEX IF NOT EXISTS document_name_pattern_idx ON document (name text_pattern_ops);
+CREATE INDEX IF NOT EXISTS document_type_name_pattern_idx ON document_type (name text_pattern_ops);
+CREATE INDEX IF NOT EXISTS application_user_email_pattern_idx ON application_user (email text_pattern_ops);
+CREATE INDEX IF NOT EXISTS application_user_display_name_pattern_idx
+    ON application_user (display_name text_pattern_ops);
+
+-- CONTAINS: LIKE '%abc%' по триграммам
+CREATE INDEX IF NOT EXISTS document_name_trgm_idx ON document USING gin (name gin_trgm_ops);
+
+-- Диапазоны по documentVersions.createdAt: выборка версий за период и проверка EXISTS для документа
+CREATE INDEX IF NOT EXISTS document_version_created_at_idx ON document_version (created_at);
+CREATE INDEX IF NOT EXISTS document_version_document_created_at_idx ON document_version (document_id, created_at);
+
+CREATE INDEX IF NOT EXISTS document_status_idx ON document (status);
+
+--changeset caselab:25
+-- Проверка доступа к документу: EXISTS по (application_user_id, document_id)
+CREATE INDEX IF NOT EXISTS user_to_document_user_document_idx ON user_to_document (application_user_id, document_id);
@@ -0,0 +1,172 @@
+--liquibase formatted sql
+
+--changeset caselab:26
+-- Индексы внешних ключей и производных запросов репозиториев.
+-- Составные индексы начинаются с колонки, по которой ищут чаще, и покрывают внешний ключ по первой колонке
+
+-- UserToDocumentRepository: (application_user_id, document_id) создан в changeset 25, document_id - для каскада
+CREATE INDEX IF NOT EXISTS user_to_document_document_idx ON user_to_document (document_id);
+
+-- DocumentRepository.findByDocumentType
+CREATE INDEX IF NOT EXISTS document_document_type_idx ON document (document_type_id);
+
+-- SignatureRepository.findByApplicationUserAndDocumentVersion, findAllByApplicationUserIdAndDocumentVersionIdIn
+CREATE INDEX IF NOT EXISTS signature_user_document_version_idx ON signature (application_user_id, document_version_id);
+CREATE INDEX IF NOT EXISTS signature_document_version_idx ON signature (document_version_id);
+
+-- VotingProcessRepository.findByDocumentVersion
+CREATE INDEX IF NOT EXISTS voting_process_document_version_idx ON voting_process (document_version_id);
+
+-- VoteRepository.findByApplicationUserIdAndVotingProcessId, загрузка голосов процесса
+CREATE INDEX IF NOT EXISTS vote_voting_process_user_idx ON vote (voting_process_id, application_user_id);
+CREATE INDEX IF NOT EXISTS vote_application_user_idx ON vote (application_user_id);
+
+-- SubscriptionRepository: поиск по документу, по документу и email, по email
+CREATE INDEX IF NOT EXISTS subscription_document_user_email_idx ON subscription (document_id, user_email);
+CREATE INDEX IF NOT EXISTS subscription_user_email_idx ON subscription (user_email);
+
+-- Внешние ключи на attribute
+CREATE INDEX IF NOT EXISTS document_attribute_value_attribute_idx ON document_attribute_value (attribute_id);
+CREATE INDEX IF NOT EXISTS document_type_to_attribute_attribute_idx ON document_type_to_attribute (attribute_id);
+
+-- RefreshTokenRepository.findByToken, удаление токенов пользователя
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_tokens_token_uidx ON refresh_tokens (token);
+CREATE INDEX IF NOT EXISTS refresh_tokens_application_user_idx ON refresh_tokens (application_user_id);
+
+-- ApplicationUserRepository.findByEmail: email однозначно определяет пользователя
+CREATE UNIQUE INDEX IF NOT EXISTS application_user_email_uidx ON application_user (email);
+
+--changeset caselab:27
+ALTER TABLE document ADD COLUMN IF NOT EXISTS latest_version_id BIGINT REFERENCES document_version (id) ON DELETE SET NULL;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS version_count INT NOT NULL DEFAULT 0;
+
+UPDATE document d
+SET latest_version_id = v.id,
+    version_count     = v.version_count
+FROM (SELECT DISTINCT ON (document_id) document_id,
+                                       id,
+                                       count(*) OVER (PARTITION BY document_id) AS version_count
+      FROM document_version
+      ORDER BY document_id, created_at DESC, id DESC) v
+WHERE d.id = v.document_id;
+
+CREATE INDEX IF NOT EXISTS document_latest_version_idx ON document (latest_version_id);
+
+--changeset caselab:28 splitStatements:false
+-- Последняя версия и число версий документа обновляются в той же транзакции, что и вставка/удаление версии
+CREATE OR REPLACE FUNCTION document_version_latest() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE document
+        SET latest_version_id = NEW.id,
+            version_count     = version_count + 1
+        WHERE id = NEW.document_id;
+        RETURN NEW;
+    END IF;
+
+    UPDATE document
+    SET latest_version_id = (SELECT v.id
+                             FROM document_version v
+                             WHERE v.document_id = OLD.document_id
+                             ORDER BY v.created_at DESC, v.id DESC
+                             LIMIT 1),
+        version_count     = greatest(version_count - 1, 0)
+    WHERE id = OLD.document_id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS document_version_latest ON document_version;
+CREATE TRIGGER document_version_latest
+    AFTER INSERT OR DELETE
+    ON document_version
+    FOR EACH ROW
+EXECUTE FUNCTION document_version_latest();
+
+--changeset caselab:29
+-- Шаг последовательности совпадает с allocationSize в DocumentVersion: Hibernate резервирует идентификаторы пачкой
+ALTER SEQUENCE document_version_id_seq INCREMENT BY 50;
+
+--changeset caselab:30
+-- Состояние корзин ограничения частоты запросов, общее для всех узлов приложения
+CREATE TABLE IF NOT EXISTS rate_limit_bucket
+(
+    bucket_key TEXT        NOT NULL,
+    state      BYTEA       NOT NULL,
+    expires_at timestamptz NOT NULL,
+
+    PRIMARY KEY (bucket_key)
+);
+
+CREATE INDEX IF NOT EXISTS rate_limit_bucket_expires_at_idx ON rate_limit_bucket (expires_at);
+
+--changeset caselab:31
+-- Access-токены пользователя, выпущенные раньше revoked_at, отклоняются
+CREATE TABLE IF NOT EXISTS access_token_revocation
+(
+    email      TEXT        NOT NULL,
+    revoked_at timestamptz NOT NULL,
+
+    PRIMARY KEY (email)
+);
+
+--changeset caselab:32
+-- Refresh-токен хранится как SHA-256 (hex), исходное значение есть только у клиента.
+-- Токены одной цепочки обновлений образуют семейство: повторное предъявление использованного токена отзывает его целиком
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash TEXT;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id UUID;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS rotated BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE refresh_tokens
+SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex'),
+    family_id  = gen_random_uuid()
+WHERE token_hash IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+
+DROP INDEX IF EXISTS refresh_tokens_token_uidx;
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_tokens_token_hash_uidx ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS refresh_tokens_family_idx ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS refresh_tokens_expires_date_idx ON refresh_tokens (expires_date);
+
+--changeset caselab:33 splitStatements:false
+-- Вставка версии меняет последнюю версию документа, только если новая версия позже в том же порядке,
+-- что и в changeset 27 и ветке удаления: created_at DESC, id DESC
+CREATE OR REPLACE FUNCTION document_version_latest() RETURNS TRIGGER AS
+$$
+DECLARE
+    latest_id         BIGINT;
+    latest_created_at timestamptz;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        -- Блокировка строки документа упорядочивает параллельные вставки версий одного документа,
+        -- следующий запрос уже видит версию, зафиксированную предыдущей транзакцией
+        SELECT d.latest_version_id INTO latest_id FROM document d WHERE d.id = NEW.document_id FOR UPDATE;
+        SELECT v.created_at INTO latest_created_at FROM document_version v WHERE v.id = latest_id;
+
+        UPDATE document
+        SET latest_version_id = CASE
+                                    WHEN latest_created_at IS NULL
+                                        OR (NEW.created_at, NEW.id) > (latest_created_at, latest_id) THEN NEW.id
+                                    ELSE latest_version_id
+                                END,
+            version_count     = version_count + 1
+        WHERE id = NEW.document_id;
+        RETURN NEW;
+    END IF;
+
+    UPDATE document
+    SET latest_version_id = (SELECT v.id
+                             FROM document_version v
+                             WHERE v.document_id = OLD.document_id
+                             ORDER BY v.created_at DESC, v.id DESC
+                             LIMIT 1),
+        version_count     = greatest(version_count - 1, 0)
+    WHERE id = OLD.document_id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
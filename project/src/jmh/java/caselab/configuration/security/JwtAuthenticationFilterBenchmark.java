@@ -0,0 +1,107 @@
+package caselab.configuration.security;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.service.secutiry.AccessTokenDenylist;
+import caselab.service.secutiry.ClaimsExtractorService;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Пропускная способность JwtAuthenticationFilter в режиме jwt.stateless с кэшем claims и без него.
+// Запросы идут с пулом токенов разных пользователей, каждый токен повторяется, как у живых клиентов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "55d731c263e1ddb8e50eec214ccf010207b82cfb415c76976751a12f1f04c2ca";
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean claimsCache;
+
+    @Param({"1000"})
+    public int tokens;
+
+    private JwtAuthenticationFilter filter;
+    private List<String> authorizationHeaders;
+
+    @Setup
+    public void setUp() {
+        var properties = new JwtProperties(SECRET, Duration.ofMinutes(60), Duration.ofDays(1), true);
+        var jwtService = new JwtService(properties);
+        filter = new JwtAuthenticationFilter(
+            new ClaimsExtractorService(
+                properties,
+                new ApplicationConfig.ClaimsCache(claimsCache, tokens * 2L),
+                new SimpleMeterRegistry()
+            ),
+            new AccessTokenDenylist(null, null, properties),
+            properties,
+            username -> {
+                throw new IllegalStateException("User must not be loaded in stateless mode");
+            },
+            new StaticMessageSource(),
+            new ObjectMapper()
+        );
+        authorizationHeaders = IntStream.range(0, tokens)
+            .mapToObj(i -> new UserPrincipal((long) i, "user-" + i + "@example.com", null,
+                List.of(new SimpleGrantedAuthority("USER"))))
+            .map(principal -> "Bearer " + jwtService.generateToken(principal))
+            .toList();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/v1/documents");
+        request.addHeader(HttpHeaders.AUTHORIZATION,
+            authorizationHeaders.get(ThreadLocalRandom.current().nextInt(authorizationHeaders.size())));
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
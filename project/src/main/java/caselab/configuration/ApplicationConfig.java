@@ -2,15 +2,27 @@ package caselab.configuration;
 
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 @ConfigurationProperties(prefix = "app", ignoreUnknownFields = false)
 public record ApplicationConfig(
     @Bean @NotNull Scheduler scheduler,
-    @Bean @NotNull Retry retry
+    @Bean @NotNull Retry retry,
+    @Bean @NotNull PrincipalCache principalCache,
+    @Bean @NotNull StorageGc storageGc,
+    @Bean @NotNull MailOutbox mailOutbox,
+    @Bean @NotNull DocumentEvents documentEvents,
+    @Bean @NotNull Websocket websocket,
+    @Bean @NotNull RateLimit rateLimit,
+    @Bean @NotNull TokenDenylist tokenDenylist,
+    @Bean @NotNull ClaimsCache claimsCache,
+    @Bean @NotNull RefreshTokenPurge refreshTokenPurge,
+    @Bean @NotNull DocumentTypeCache documentTypeCache
 ) {
 
     public record Retry(
@@ -19,9 +31,111 @@ public record ApplicationConfig(
         long multiplier
     ) {}
 
+    public record PrincipalCache(
+        @NotNull Duration ttl,
+        long maximumSize
+    ) { }
+
+    public record TokenDenylist(
+        @NotNull Duration refreshInterval
+    ) { }
+
+    public record ClaimsCache(
+        boolean enable,
+        long maximumSize
+    ) { }
+
+    public record DocumentTypeCache(
+        @NotNull Duration ttl
+    ) { }
+
+    public record RefreshTokenPurge(
+        @NotNull Duration interval,
+        int batchSize
+    ) { }
+
+    public record DocumentEvents(
+        @NotNull FanOut fanOut,
+        int consumerConcurrency
+    ) {
+
+        // CONSUMER публикует события без получателя, которые понимают только обновленные потребители:
+        // включать его можно после обновления всех узлов, до этого используется PRODUCER
+        public enum FanOut {
+            CONSUMER, PRODUCER
+        }
+    }
+
+    public record Websocket(
+        @NotNull Broker broker,
+        @NotNull Relay relay,
+        @NotNull ChannelPool inboundChannel,
+        @NotNull ChannelPool outboundChannel,
+        @NotNull Duration sendTimeLimit,
+        @NotNull DataSize sendBufferSizeLimit
+    ) {
+
+        public enum Broker {
+            SIMPLE, RELAY
+        }
+
+        public record Relay(
+            String host,
+            int port,
+            String login,
+            String passcode,
+            String virtualHost
+        ) { }
+
+        public record ChannelPool(
+            int corePoolSize,
+            int maxPoolSize,
+            int queueCapacity
+        ) { }
+    }
+
+    public record RateLimit(
+        boolean enable,
+        @NotNull Store store,
+        long localMaximumSize,
+        @NotNull Duration purgeInterval,
+        int purgeBatchSize,
+        @NotNull List<Tier> tiers
+    ) {
+
+        public enum Store {
+            LOCAL, POSTGRES
+        }
+
+        // Пустой methods означает любой метод, multipart ограничивает тариф загрузками файлов
+        public record Tier(
+            @NotNull String name,
+            @NotNull List<String> paths,
+            List<String> methods,
+            boolean multipart,
+            long capacity,
+            @NotNull Duration period
+        ) { }
+    }
+
+    public record MailOutbox(
+        @NotNull Duration pollInterval,
+        @NotNull Duration lease,
+        int batchSize,
+        int sessions
+    ) { }
+
+    public record StorageGc(
+        boolean enable,
+        @NotNull Duration interval,
+        @NotNull Duration gracePeriod,
+        int batchSize
+    ) { }
+
     public record Scheduler(
         boolean enable,
         @NotNull Duration interval,
-        @NotNull Duration forceCheckDelay
+        @NotNull Duration forceCheckDelay,
+        int batchSize
     ) { }
 }
@@ -0,0 +1,36 @@
+package caselab.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRINCIPAL_CACHE = "principals";
+
+    @Bean
+    public JCacheManagerCustomizer principalCacheCustomizer(ApplicationConfig applicationConfig) {
+        var properties = applicationConfig.principalCache();
+        return cacheManager -> {
+            var configuration = new CaffeineConfiguration<Object, Object>();
+            configuration.setStoreByValue(false);
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.ttl().toNanos()));
+            configuration.setMaximumSize(OptionalLong.of(properties.maximumSize()));
+            cacheManager.createCache(PRINCIPAL_CACHE, configuration);
+        };
+    }
+
+    // Запись и удаление из кэша выполняются после коммита транзакции,
+    // иначе параллельный запрос может успеть закэшировать еще не измененного пользователя
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCacheCustomizer() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+}
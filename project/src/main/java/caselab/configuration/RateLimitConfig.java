@@ -0,0 +1,35 @@
+package caselab.configuration;
+
+import caselab.domain.ratelimit.LocalProxyManager;
+import caselab.domain.ratelimit.PostgresProxyManager;
+import caselab.domain.repository.RateLimitBucketRepository;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// app.rate-limit.store=POSTGRES хранит корзины в БД и делит лимит между всеми узлами,
+// LOCAL держит их в памяти каждого узла
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public ProxyManager<String> rateLimitProxyManager(
+        ApplicationConfig.RateLimit rateLimit,
+        RateLimitBucketRepository rateLimitBucketRepository,
+        TransactionTemplate transactionTemplate
+    ) {
+        return switch (rateLimit.store()) {
+            case POSTGRES -> new PostgresProxyManager(rateLimitBucketRepository, transactionTemplate);
+            // Корзина, к которой не обращались дольше самого длинного периода, уже полностью восстановлена
+            case LOCAL -> new LocalProxyManager(
+                rateLimit.localMaximumSize(),
+                rateLimit.tiers().stream()
+                    .map(ApplicationConfig.RateLimit.Tier::period)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ofMinutes(1))
+            );
+        };
+    }
+}
@@ -1,8 +1,16 @@
 package caselab.configuration;
 
+import caselab.domain.repository.StoredContentRepository;
+import caselab.domain.storage.FileStorage;
 import caselab.domain.storage.exception.InitStorageException;
+import caselab.domain.storage.impl.ContentAddressedStorage;
+import caselab.domain.storage.impl.DiskCacheStorage;
+import caselab.domain.storage.impl.DocumentVersionStorage;
+import caselab.domain.storage.impl.MultipartMinioClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InsufficientDataException;
@@ -11,6 +19,7 @@ import io.minio.errors.InvalidResponseException;
 import io.minio.errors.ServerException;
 import io.minio.errors.XmlParserException;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
@@ -18,6 +27,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 
 @Slf4j
 @Configuration
@@ -31,6 +43,14 @@ public class StorageConfig {
     private String accessKey;
     @Value("${minio.secretkey}")
     private String secretKey;
+    @Value("${minio.cache.enabled:false}")
+    private boolean cacheEnabled;
+    @Value("${minio.cache.directory:${java.io.tmpdir}/caselab-storage-cache}")
+    private Path cacheDirectory;
+    @Value("${minio.cache.max-size:1GB}")
+    private DataSize cacheMaxSize;
+    @Value("${minio.cache.max-entry-size:100MB}")
+    private DataSize cacheMaxEntrySize;
 
     @Bean
     public MinioClient minioClient() {
@@ -45,6 +65,41 @@ public class StorageConfig {
         }
     }
 
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        try {
+            return new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(url)
+                .credentials(accessKey, secretKey)
+                .build());
+        } catch (Exception exc) {
+            log.error("Creating MinIO async client failed");
+            throw new InitStorageException(exc.getMessage(), exc.getCause());
+        }
+    }
+
+    // Сервисы работают с хранилищем версий документов через слой адресации по содержимому
+    // и, если включен, локальный дисковый кэш чтения
+    @Bean
+    @Primary
+    public FileStorage fileStorage(
+        DocumentVersionStorage documentVersionStorage,
+        StoredContentRepository storedContentRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        FileStorage storage = new ContentAddressedStorage(
+            documentVersionStorage,
+            storedContentRepository,
+            transactionManager,
+            meterRegistry
+        );
+        if (cacheEnabled) {
+            storage = new DiskCacheStorage(storage, cacheDirectory, cacheMaxSize, cacheMaxEntrySize, meterRegistry);
+        }
+        return storage;
+    }
+
     @Bean
     public boolean bucketsInit() {
         for (String bucket : buckets) {
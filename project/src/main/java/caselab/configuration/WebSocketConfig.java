@@ -1,19 +1,50 @@
 package caselab.configuration;
 
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+// app.websocket.broker=RELAY переключает рассылку на внешний STOMP-брокер (например, RabbitMQ с rabbitmq_stomp).
+// Узлы обмениваются реестром пользователей и неразрешенными user-сообщениями через брокер,
+// поэтому /user/queue/notifications доходит до сессии, подключенной к любому узлу
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String QUEUE_PREFIX = "/queue";
+    private static final String TOPIC_PREFIX = "/topic";
+
+    private final ApplicationConfig.Websocket properties;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/queue");
+        if (properties.broker() == ApplicationConfig.Websocket.Broker.RELAY) {
+            var relay = properties.relay();
+            config.enableStompBrokerRelay(QUEUE_PREFIX, TOPIC_PREFIX)
+                .setRelayHost(relay.host())
+                .setRelayPort(relay.port())
+                .setClientLogin(relay.login())
+                .setClientPasscode(relay.passcode())
+                .setSystemLogin(relay.login())
+                .setSystemPasscode(relay.passcode())
+                .setVirtualHost(relay.virtualHost())
+                .setUserDestinationBroadcast(TOPIC_PREFIX + "/unresolved-user-destination")
+                .setUserRegistryBroadcast(TOPIC_PREFIX + "/simp-user-registry");
+        } else {
+            config.enableSimpleBroker(QUEUE_PREFIX);
+        }
         config.setUserDestinationPrefix("/user");
+        // Пул outbound-канала иначе может отправить сообщения одной сессии не в том порядке,
+        // в котором их опубликовали
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -22,5 +53,41 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             .addEndpoint("/ws")
             .setAllowedOrigins("*");
 //            .withSockJS(); TODO: добавить поддержку SockJS Fallback
+        // Кадры одной сессии обрабатываются пулом inbound-канала последовательно, в порядке получения
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(createExecutor("ws-inbound-", properties.inboundChannel()));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(createExecutor("ws-outbound-", properties.outboundChannel()));
+    }
+
+    // Медленные клиенты отключаются, а не копят неотправленные сообщения в памяти
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration
+            .setSendTimeLimit((int) properties.sendTimeLimit().toMillis())
+            .setSendBufferSizeLimit((int) properties.sendBufferSizeLimit().toBytes());
+    }
+
+    // При заполненной очереди сообщение обрабатывает вызывающий поток:
+    // чтение из сокета (inbound) или брокер (outbound) притормаживают вместо потери сообщений
+    private ThreadPoolTaskExecutor createExecutor(
+        String threadNamePrefix,
+        ApplicationConfig.Websocket.ChannelPool pool
+    ) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.corePoolSize());
+        executor.setMaxPoolSize(pool.maxPoolSize());
+        executor.setQueueCapacity(pool.queueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
     }
 }
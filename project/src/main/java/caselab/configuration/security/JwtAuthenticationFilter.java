@@ -1,8 +1,12 @@
 package caselab.configuration.security;
 
 import caselab.exception.entity.not_found.UserNotFoundException;
+import caselab.service.secutiry.AccessTokenDenylist;
 import caselab.service.secutiry.ClaimsExtractorService;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
@@ -22,6 +26,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -34,6 +39,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String BEARER_TYPE = "Bearer ";
     private final ClaimsExtractorService claimsExtractorService;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final JwtProperties jwtProperties;
     private final UserDetailsService userDetailsService;
     private final MessageSource messageSource;
     private final ObjectMapper objectMapper;
@@ -49,16 +56,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            var jwt = authHeader.substring(BEARER_TYPE.length());
-            var userLogin = claimsExtractorService.extractEmail(jwt);
+            // Токен разбирается один раз: подпись и срок действия проверяет парсер
+            var claims = claimsExtractorService.extractAllClaims(authHeader.substring(BEARER_TYPE.length()));
+            var userLogin = claims.getSubject();
 
-            if (userLogin != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                setAuthentication(jwt, request);
-            } else if (userLogin == null) {
+            if (userLogin == null) {
                 throw new IllegalArgumentException();
             }
-
-            filterChain.doFilter(request, response);
+            if (accessTokenDenylist.isRevoked(userLogin, claims.getIssuedAt())) {
+                addProblemDetailToResponse(request, response, "token.revoked", null);
+            } else {
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    setAuthentication(claims, request);
+                }
+                filterChain.doFilter(request, response);
+            }
         } catch (ExpiredJwtException e) {
             addProblemDetailToResponse(request, response, "token.expired", null);
         } catch (IllegalArgumentException e) {
@@ -86,16 +98,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         response.getWriter().write(objectMapper.writeValueAsString(problemDetail));
     }
 
-    private void setAuthentication(String jwt, HttpServletRequest request) {
-        if (!claimsExtractorService.isTokenExpired(jwt)) {
-            var userDetails = userDetailsService.loadUserByUsername(claimsExtractorService.extractEmail(jwt));
-            var authToken = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-            );
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
+    // В режиме jwt.stateless пользователь восстанавливается из claims без обращения к БД.
+    // Токены, выпущенные без разрешений в claims, по-прежнему проверяются загрузкой пользователя
+    private void setAuthentication(Claims claims, HttpServletRequest request) {
+        UserDetails userDetails = jwtProperties.stateless() && claims.containsKey(JwtService.PERMISSIONS_CLAIM)
+            ? UserPrincipal.of(claims)
+            : userDetailsService.loadUserByUsername(claims.getSubject());
+        var authToken = new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
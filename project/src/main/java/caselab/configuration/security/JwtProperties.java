@@ -14,7 +14,9 @@ public record JwtProperties(
     @DurationUnit(ChronoUnit.MINUTES)
     Duration accessTokenTtl,
     @DurationUnit(ChronoUnit.MINUTES)
-    Duration refreshTokenTtl
+    Duration refreshTokenTtl,
+    // Пользователь восстанавливается из claims токена без обращения к БД, отзыв - через AccessTokenDenylist
+    boolean stateless
 ) {
 
     public SecretKey getSignInKey() {
@@ -0,0 +1,174 @@
+package caselab.configuration.security;
+
+import caselab.configuration.ApplicationConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Ограничивает частоту запросов по тарифам app.rate-limit.tiers: запрос попадает в первый подходящий тариф.
+// Корзина ведется на пользователя (subject JWT) в пределах тарифа, для анонимных запросов - на адрес клиента.
+// Фильтр стоит в цепочке безопасности после JwtAuthenticationFilter, поэтому пользователь уже известен
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+    private static final String EXCEEDED_MESSAGE = "rate_limit.exceeded";
+
+    private final ApplicationConfig.RateLimit properties;
+    private final ProxyManager<String> proxyManager;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final List<CompiledTier> tiers;
+
+    public RateLimitFilter(
+        ApplicationConfig.RateLimit rateLimit,
+        ProxyManager<String> rateLimitProxyManager,
+        MessageSource messageSource,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = rateLimit;
+        this.proxyManager = rateLimitProxyManager;
+        this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.tiers = rateLimit.tiers().stream()
+            .map(tier -> compile(tier, meterRegistry))
+            .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enable();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        var tier = tiers.stream()
+            .filter(candidate -> candidate.matcher().matches(request))
+            .findFirst()
+            .orElse(null);
+        var probe = tier == null ? null : tryConsume(tier, request);
+
+        if (probe == null || probe.isConsumed()) {
+            if (probe != null) {
+                response.setHeader(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+            }
+            filterChain.doFilter(request, response);
+        } else {
+            tier.rejected().increment();
+            addProblemDetailToResponse(request, response, probe);
+        }
+    }
+
+    // Недоступность хранилища корзин не должна останавливать обработку запросов
+    private ConsumptionProbe tryConsume(CompiledTier tier, HttpServletRequest request) {
+        try {
+            return proxyManager.builder()
+                .build(tier.name() + ":" + clientKey(request), tier.configuration())
+                .tryConsumeAndReturnRemaining(1);
+        } catch (DataAccessException e) {
+            log.warn("Rate limit check skipped for tier {}: {}", tier.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+            && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void addProblemDetailToResponse(
+        HttpServletRequest request, HttpServletResponse response, ConsumptionProbe probe
+    ) throws IOException {
+        long retryAfter = Math.max(TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()), 1);
+        var problemDetail = ProblemDetail.forStatusAndDetail(
+            HttpStatus.TOO_MANY_REQUESTS,
+            Objects.requireNonNull(messageSource.getMessage(
+                EXCEEDED_MESSAGE, new Object[] {retryAfter}, EXCEEDED_MESSAGE, request.getLocale()
+            ))
+        );
+
+        problemDetail.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.displayName());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(problemDetail));
+    }
+
+    private static CompiledTier compile(ApplicationConfig.RateLimit.Tier tier, MeterRegistry meterRegistry) {
+        List<RequestMatcher> matchers = new ArrayList<>();
+        for (var path : tier.paths()) {
+            if (CollectionUtils.isEmpty(tier.methods())) {
+                matchers.add(new AntPathRequestMatcher(path));
+            } else {
+                tier.methods().forEach(method -> matchers.add(new AntPathRequestMatcher(path, method)));
+            }
+        }
+        RequestMatcher matcher = new OrRequestMatcher(matchers);
+        if (tier.multipart()) {
+            RequestMatcher paths = matcher;
+            matcher = request -> paths.matches(request) && isMultipart(request);
+        }
+
+        var configuration = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(tier.capacity(), Refill.intervally(tier.capacity(), tier.period())))
+            .build();
+        var rejected = Counter.builder("rate_limit.rejected")
+            .tag("tier", tier.name())
+            .register(meterRegistry);
+        return new CompiledTier(tier.name(), matcher, configuration, rejected);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        var contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    private record CompiledTier(
+        String name,
+        RequestMatcher matcher,
+        BucketConfiguration configuration,
+        Counter rejected
+    ) { }
+}
@@ -1,7 +1,6 @@
 package caselab.configuration.security;
 
-import caselab.domain.repository.ApplicationUserRepository;
-import caselab.exception.entity.not_found.UserNotFoundException;
+import caselab.service.secutiry.UserPrincipalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,12 +16,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class SecurityToolsConfig {
 
-    private final ApplicationUserRepository appUserRepository;
+    private final UserPrincipalService userPrincipalService;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> appUserRepository.findByEmail(username)
-            .orElseThrow(() -> new UserNotFoundException(username));
+        return userPrincipalService::loadPrincipal;
     }
 
     @Bean
@@ -4,6 +4,7 @@ import caselab.controller.document.facade.payload.CreateDocumentRequest;
 import caselab.controller.document.facade.payload.DocumentFacadeResponse;
 import caselab.controller.document.facade.payload.PatchDocumentRequest;
 import caselab.controller.document.facade.payload.UpdateDocumentRequest;
+import caselab.controller.payload.CursorPageResponse;
 import caselab.domain.entity.search.SearchRequest;
 import caselab.elastic.service.DocumentElasticService;
 import caselab.service.document.facade.DocumentFacadeService;
@@ -98,6 +99,29 @@ public class DocumentFacadeController {
         return documentFacadeService.getAllDocuments(pageNum, pageSize, sortStrategy, authentication);
     }
 
+    @Operation(summary = "Возвращает документы с помощью курсора",
+               description = "Возвращает документы в том же порядке, что и получение всех документов, "
+                   + "но без подсчета общего количества. "
+                   + "Для следующей страницы передается курсор из предыдущего ответа")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Успешное получение документов",
+                     content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "403", description = "Ошибка аутентификации",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/scroll")
+    CursorPageResponse<DocumentFacadeResponse> scrollAllDocuments(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "pageSize", required = false) Integer pageSize,
+        @Parameter(description = "Значение может быть desc или asc")
+        @RequestParam(value = "sortStrategy", required = false, defaultValue = "desc") String sortStrategy,
+        Authentication authentication
+    ) {
+        return documentFacadeService.scrollAllDocuments(cursor, pageSize, sortStrategy, authentication);
+    }
+
     @Operation(summary = "Обновить информацию о документе",
                description = "Обновляет информацию о документе и возвращает его")
     @ApiResponses(value = {
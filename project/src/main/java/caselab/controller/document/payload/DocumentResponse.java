@@ -3,6 +3,7 @@ package caselab.controller.document.payload;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Builder;
 
@@ -21,6 +22,9 @@ public record DocumentResponse(
     @JsonProperty("document_versions_ids")
     @ArraySchema(schema = @Schema(implementation = Long.class, description = "Список id версий документов"))
     List<Long> documentVersionIds,
+    @JsonProperty("latest_version_id")
+    @Schema(description = "ID последней версии документа", example = "1")
+    Long latestVersionId,
     @JsonProperty("user_permissions")
     @ArraySchema(schema = @Schema(implementation = UserToDocumentResponse.class,
                                   description = "Список разрешений пользователей, имеющих доступ к документу"))
@@ -28,4 +32,11 @@ public record DocumentResponse(
     @JsonProperty("status")
     String status
 ) {
+
+    // Ответ после создания новой версии документа, которая становится последней
+    public DocumentResponse withLatestVersion(Long versionId) {
+        var versionIds = new ArrayList<>(documentVersionIds);
+        versionIds.add(versionId);
+        return new DocumentResponse(id, documentTypeId, name, versionIds, versionId, usersPermissions, status);
+    }
 }
@@ -0,0 +1,124 @@
+package caselab.controller.document.version;
+
+import caselab.domain.storage.StoredObject;
+import java.io.InputStream;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Отдача файла из хранилища: заголовки берутся из метаданных объекта, поддерживаются условные запросы
+// (If-None-Match / If-Modified-Since) и один диапазон Range. Тело передается асинхронно,
+// поток контейнера освобождается сразу после формирования заголовков
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ContentResponseUtil {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+    private static final String BYTES = "bytes";
+
+    public static ResponseEntity<StreamingResponseBody> toResponse(
+        StoredObject content,
+        ServletWebRequest request,
+        ContentOpener opener
+    ) {
+        String etag = toETag(content.etag());
+        if (request.checkNotModified(etag, content.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        long size = content.size();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setLastModified(content.lastModified());
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES);
+        headers.setContentType(toMediaType(content.contentType()));
+
+        long[] range;
+        try {
+            range = findRange(request, etag, size);
+        } catch (IllegalArgumentException e) {
+            headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " */" + size);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+
+        if (range == null) {
+            headers.setContentLength(size);
+            return new ResponseEntity<>(stream(opener, 0, size), headers, HttpStatus.OK);
+        }
+
+        long length = range[1] - range[0] + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " " + range[0] + "-" + range[1] + "/" + size);
+        headers.setContentLength(length);
+        return new ResponseEntity<>(stream(opener, range[0], length), headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
+    // Возвращает границы [start, end] единственного диапазона либо null, если нужно отдать файл целиком.
+    // Несколько диапазонов, некорректный Range и Range с устаревшим If-Range обслуживаются полным ответом
+    // (RFC 9110, 14.2), 416 возвращается только для корректного, но невыполнимого диапазона
+    private static long[] findRange(ServletWebRequest request, String etag, long size) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader == null || ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+
+        List<HttpRange> ranges = parseRanges(rangeHeader);
+        if (ranges.size() != 1) {
+            return null;
+        }
+
+        long start = ranges.getFirst().getRangeStart(size);
+        long end = ranges.getFirst().getRangeEnd(size);
+        if (start >= size || end < start) {
+            throw new IllegalArgumentException("Range is not satisfiable for size " + size);
+        }
+        return new long[] {start, end};
+    }
+
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static StreamingResponseBody stream(ContentOpener opener, long offset, long length) {
+        return outputStream -> {
+            if (length == 0) {
+                return;
+            }
+            try (InputStream inputStream = opener.open(offset, length)) {
+                byte[] buffer = BUFFERS.get();
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+        };
+    }
+
+    private static String toETag(String etag) {
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+
+    private static MediaType toMediaType(String contentType) {
+        try {
+            return contentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentOpener {
+        InputStream open(long offset, long length);
+    }
+}
@@ -1,6 +1,7 @@
 package caselab.controller.document.version;
 
 import caselab.controller.document.version.payload.DocumentVersionResponse;
+import caselab.controller.payload.CursorPageResponse;
 import caselab.service.document.version.DocumentVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,10 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -23,6 +21,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/versions")
@@ -72,19 +72,61 @@ public class DocumentVersionController {
         return documentVersionService.getDocumentVersionsByDocumentId(id, pageNum, pageSize, sortStrategy, auth);
     }
 
+    @Operation(summary = "Получить версии документа по id документа с помощью курсора",
+               description = "Возвращает версии документа страницами без подсчета общего количества. "
+                   + "Для следующей страницы передается курсор из предыдущего ответа. "
+                   + "Доступно только администратору либо создателю документа.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                     description = "Успешное получение версий документов",
+                     content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Документ не найден",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "403", description = "Ошибка аутентификации",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/document/{id}/scroll")
+    public CursorPageResponse<DocumentVersionResponse> scrollDocumentVersionsByDocumentId(
+        @PathVariable("id") Long id,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "pageSize", required = false) Integer pageSize,
+        @Parameter(description = "Значение может быть desc или asc")
+        @RequestParam(value = "sortStrategy", required = false, defaultValue = "desc") String sortStrategy,
+        Authentication auth
+    ) {
+        return documentVersionService.scrollDocumentVersionsByDocumentId(id, cursor, pageSize, sortStrategy, auth);
+    }
+
     @Operation(summary = "Получить файл версии документа по id",
-               description = "Возвращает файл версии документа по id")
+               description = "Возвращает файл версии документа по id. "
+                   + "Поддерживаются заголовки Range, If-Range, If-None-Match и If-Modified-Since")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Успешное получение файла",
                      content = @Content(schema = @Schema(implementation = DocumentVersionResponse.class))),
+        @ApiResponse(responseCode = "206", description = "Успешное получение части файла",
+                     content = @Content),
+        @ApiResponse(responseCode = "304", description = "Файл не изменился",
+                     content = @Content),
+        @ApiResponse(responseCode = "416", description = "Запрошенный диапазон недопустим",
+                     content = @Content),
         @ApiResponse(responseCode = "404", description = "Версия документа не найдена",
                      content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
         @ApiResponse(responseCode = "403", description = "Ошибка аутентификации",
                      content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
     })
     @GetMapping("/content/{id}")
-    public ResponseEntity<Resource> getDocumentVersionContent(@PathVariable Long id, Authentication auth) {
-        var resource = new InputStreamResource(documentVersionService.getDocumentVersionContent(id, auth));
-        return new ResponseEntity<>(resource, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getDocumentVersionContent(
+        @PathVariable Long id,
+        ServletWebRequest request,
+        Authentication auth
+    ) {
+        var content = documentVersionService.getDocumentVersionContentInfo(id, auth);
+        return ContentResponseUtil.toResponse(
+            content,
+            request,
+            (offset, length) -> documentVersionService.getDocumentVersionContent(content, offset, length)
+        );
     }
 }
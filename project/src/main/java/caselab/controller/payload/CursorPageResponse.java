@@ -0,0 +1,19 @@
+package caselab.controller.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Страница, полученная по курсору, без подсчета общего количества элементов")
+public record CursorPageResponse<T>(
+    @JsonProperty("content")
+    @Schema(description = "Элементы текущей страницы")
+    List<T> content,
+    @JsonProperty("next_cursor")
+    @Schema(description = "Курсор для получения следующей страницы, null если страница последняя")
+    String nextCursor,
+    @JsonProperty("has_next")
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    boolean hasNext
+) {
+}
@@ -1,5 +1,6 @@
 package caselab.controller.users;
 
+import caselab.controller.payload.CursorPageResponse;
 import caselab.controller.users.payload.UserResponse;
 import caselab.controller.users.payload.UserUpdateRequest;
 import caselab.domain.entity.search.SearchRequest;
@@ -52,6 +53,25 @@ public class ApplicationUserController {
         return userService.findAllUsers();
     }
 
+    @Operation(summary = "Получить пользователей с помощью курсора",
+               description = "Возвращает пользователей страницами без подсчета общего количества. "
+                   + "Для следующей страницы передается курсор из предыдущего ответа")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Успешное получение",
+                     content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "403", description = "Ошибка аутентификации",
+                     content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/all/scroll")
+    public CursorPageResponse<UserResponse> scrollUsers(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "pageSize", required = false) Integer pageSize
+    ) {
+        return userService.scrollUsers(cursor, pageSize);
+    }
+
     @Operation(summary = "Получить список пользователей по фильтрам",
                description = "Возвращает отфильтрованный список пользователей")
     @ApiResponses(value = {
@@ -0,0 +1,29 @@
+package caselab.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "access_token_revocation")
+public class AccessTokenRevocation {
+
+    @Id
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "revoked_at", nullable = false)
+    private OffsetDateTime revokedAt;
+}
@@ -7,12 +7,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import java.util.List;
@@ -54,6 +56,15 @@ public class Document {
     @OrderBy("createdAt desc")
     private List<DocumentVersion> documentVersions;
 
+    // latest_version_id и version_count ведет триггер document_version_latest при вставке и удалении версий
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "latest_version_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    private DocumentVersion latestVersion;
+
+    @Column(name = "version_count", insertable = false, updatable = false)
+    private int versionCount;
+
     @OneToMany(mappedBy = "document")
     @ToString.Exclude
     private List<UserToDocument> usersToDocuments;
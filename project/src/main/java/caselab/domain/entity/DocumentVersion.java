@@ -1,6 +1,7 @@
 package caselab.domain.entity;
 
 import caselab.domain.entity.attribute.value.AttributeValue;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -9,6 +10,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -31,11 +33,13 @@ import org.hibernate.annotations.OnDeleteAction;
 public class DocumentVersion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Идентификаторы из последовательности выдаются пачками, поэтому вставки версий и их атрибутов группируются в batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_version_id_seq")
+    @SequenceGenerator(name = "document_version_id_seq", sequenceName = "document_version_id_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
 
-    @OneToMany(mappedBy = "documentVersion")
+    @OneToMany(mappedBy = "documentVersion", cascade = CascadeType.PERSIST)
     private List<AttributeValue> attributeValues;
 
     @Column(name = "name", nullable = false)
@@ -0,0 +1,33 @@
+package caselab.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Сериализованное состояние корзины bucket4j. Строка изменяется только через compare-and-swap в репозитории
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rate_limit_bucket")
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key", nullable = false)
+    private String key;
+
+    @Column(name = "state", nullable = false)
+    private byte[] state;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -25,7 +26,10 @@ public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
-    private String token;
+    private String tokenHash;
+    private UUID familyId;
+    // Токен уже обменян на новый, повторное предъявление означает утечку
+    private boolean rotated;
     private LocalDateTime expiresDate;
     @ManyToOne
     @JoinColumn(name = "application_user_id", nullable = false)
@@ -0,0 +1,37 @@
+package caselab.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Объект хранилища, на который ссылаются версии документов через content_name.
+// refCount поддерживается триггером на document_version, приложение его не изменяет
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_content")
+public class StoredContent {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "size")
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false, insertable = false, updatable = false)
+    private int refCount;
+
+    @Column(name = "touched_at", nullable = false)
+    private OffsetDateTime touchedAt;
+}
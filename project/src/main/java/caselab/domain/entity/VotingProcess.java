@@ -3,6 +3,8 @@ package caselab.domain.entity;
 import caselab.domain.entity.enums.VotingProcessStatus;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -40,6 +42,7 @@ public class VotingProcess {
     @Column(nullable = false)
     private Double threshold;
 
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private VotingProcessStatus status;
 
@@ -0,0 +1,5 @@
+package caselab.domain.entity.enums;
+
+public enum EmailOutboxStatus {
+    PENDING, FAILED
+}
@@ -0,0 +1,99 @@
+package caselab.domain.entity.search;
+
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.Document;
+import caselab.domain.entity.DocumentVersion;
+import caselab.domain.entity.UserToDocument;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.OffsetDateTime;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DocumentSpecifications {
+
+    public static final String LATEST_VERSION_CREATED_AT = "latestVersionCreatedAt";
+    public static final String ID = "id";
+    private static final String DOCUMENT = "document";
+
+    // Сортировка по дате создания последней версии документа выполняется в БД коррелированным подзапросом,
+    // id добавлен для стабильного порядка при совпадающих датах. Count-запрос Spring Data сортировку сбрасывает
+    public static Specification<Document> orderByLatestVersionCreatedAt(Sort.Direction direction) {
+        return (root, query, criteriaBuilder) -> {
+            var latestCreatedAt = latestVersionCreatedAt(root, query, criteriaBuilder);
+
+            query.orderBy(
+                direction.isAscending() ? criteriaBuilder.asc(latestCreatedAt) : criteriaBuilder.desc(latestCreatedAt),
+                direction.isAscending() ? criteriaBuilder.asc(root.get(ID)) : criteriaBuilder.desc(root.get(ID))
+            );
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    // Продолжение выдачи orderByLatestVersionCreatedAt после ключа (latestVersionCreatedAt, id) из курсора
+    public static Specification<Document> afterLatestVersionCreatedAt(
+        Sort.Direction direction,
+        KeysetScrollPosition position
+    ) {
+        return (root, query, criteriaBuilder) -> {
+            if (position.isInitial()) {
+                return criteriaBuilder.conjunction();
+            }
+
+            var createdAt = (OffsetDateTime) position.getKeys().get(LATEST_VERSION_CREATED_AT);
+            var id = (Long) position.getKeys().get(ID);
+            var latestCreatedAt = latestVersionCreatedAt(root, query, criteriaBuilder);
+            Path<Long> idPath = root.get(ID);
+
+            if (direction.isAscending()) {
+                return criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(latestCreatedAt, createdAt),
+                    criteriaBuilder.and(
+                        criteriaBuilder.equal(latestCreatedAt, createdAt),
+                        criteriaBuilder.greaterThan(idPath, id)
+                    )
+                );
+            }
+            return criteriaBuilder.or(
+                criteriaBuilder.lessThan(latestCreatedAt, createdAt),
+                criteriaBuilder.and(
+                    criteriaBuilder.equal(latestCreatedAt, createdAt),
+                    criteriaBuilder.lessThan(idPath, id)
+                )
+            );
+        };
+    }
+
+    // Документы, к которым у пользователя есть доступ. EXISTS по user_to_document вместо списка id
+    // из user.getUsersToDocuments(): размер запроса не зависит от числа доступных документов
+    public static Specification<Document> accessibleBy(ApplicationUser user) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Integer> access = query.subquery(Integer.class);
+            Root<UserToDocument> userToDocument = access.from(UserToDocument.class);
+            access.select(criteriaBuilder.literal(1)).where(
+                criteriaBuilder.equal(userToDocument.get(DOCUMENT), root),
+                criteriaBuilder.equal(userToDocument.get("applicationUser").get(ID), user.getId())
+            );
+            return criteriaBuilder.exists(access);
+        };
+    }
+
+    private static Subquery<OffsetDateTime> latestVersionCreatedAt(
+        Root<Document> root,
+        CommonAbstractCriteria query,
+        CriteriaBuilder criteriaBuilder
+    ) {
+        Subquery<OffsetDateTime> latestCreatedAt = query.subquery(OffsetDateTime.class);
+        Root<DocumentVersion> version = latestCreatedAt.from(DocumentVersion.class);
+        return latestCreatedAt
+            .select(criteriaBuilder.greatest(version.<OffsetDateTime>get("createdAt")))
+            .where(criteriaBuilder.equal(version.get(DOCUMENT), root));
+    }
+}
@@ -0,0 +1,14 @@
+package caselab.domain.entity.search;
+
+import caselab.domain.entity.DocumentVersion;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DocumentVersionSpecifications {
+
+    public static Specification<DocumentVersion> byDocumentId(Long documentId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("document").get("id"), documentId);
+    }
+}
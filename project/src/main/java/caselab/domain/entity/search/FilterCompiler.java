@@ -0,0 +1,263 @@
+package caselab.domain.entity.search;
+
+import caselab.exception.search.FilterNotAllowedException;
+import caselab.exception.search.InvalidFilterValueException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+// Компилирует фильтры GenericSpecifications в форму предиката.
+// Разрешенные пути разбираются один раз при создании, для каждой сущности пути проверяются по метамодели JPA.
+// Скомпилированная форма кэшируется по (сущность, набор ключей фильтров): ключи берутся только из
+// разрешенных путей, поэтому кэш ограничен. Пути через to-one связи используют общие join в рамках запроса,
+// пути через коллекции превращаются в EXISTS-подзапрос, по одному на коллекцию, без размножения строк.
+// Операторы строятся без функций над колонкой, чтобы условия могли использовать индексы
+final class FilterCompiler {
+
+    private static final String FILTER_NOT_ALLOWED = "filter.not.allowed";
+    private static final char LIKE_ESCAPE = '\\';
+    private static final DefaultConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+    static {
+        CONVERSION_SERVICE.addConverter(String.class, OffsetDateTime.class, OffsetDateTime::parse);
+    }
+
+    private final Map<String, List<String>> allowedPaths = new HashMap<>();
+    private final Map<ShapeKey, CompiledFilter> compiledFilters = new ConcurrentHashMap<>();
+
+    FilterCompiler(Collection<String> allowedFilters) {
+        allowedFilters.forEach(filter -> allowedPaths.put(filter, List.of(filter.split("\\."))));
+    }
+
+    void checkAllowed(Collection<String> filters) {
+        filters.forEach(filter -> {
+            if (!allowedPaths.containsKey(filter)) {
+                throw new FilterNotAllowedException(FILTER_NOT_ALLOWED, new Object[]{filter});
+            }
+        });
+    }
+
+    CompiledFilter compile(ManagedType<?> entityType, Set<String> filters) {
+        checkAllowed(filters);
+        return compiledFilters.computeIfAbsent(
+            new ShapeKey(entityType.getJavaType(), Set.copyOf(filters)),
+            key -> build(entityType, key.filters())
+        );
+    }
+
+    private CompiledFilter build(ManagedType<?> entityType, Set<String> filters) {
+        List<ResolvedPath> direct = new ArrayList<>();
+        Map<String, List<ResolvedPath>> collections = new LinkedHashMap<>();
+        for (var filter : filters) {
+            var path = resolve(entityType, filter);
+            if (path.collectionPrefix() == null) {
+                direct.add(path);
+            } else {
+                collections.computeIfAbsent(path.collectionPrefix(), prefix -> new ArrayList<>()).add(path);
+            }
+        }
+        return new CompiledFilter(List.copyOf(direct), Map.copyOf(collections));
+    }
+
+    private ResolvedPath resolve(ManagedType<?> entityType, String filter) {
+        var parts = allowedPaths.get(filter);
+        List<Segment> segments = new ArrayList<>(parts.size());
+        String collectionPrefix = null;
+        ManagedType<?> type = entityType;
+        for (int i = 0; i < parts.size(); i++) {
+            if (type == null) {
+                throw new FilterNotAllowedException(FILTER_NOT_ALLOWED, new Object[]{filter});
+            }
+            Attribute<?, ?> attribute = findAttribute(type, parts.get(i), filter);
+            boolean collection = attribute.isCollection();
+            segments.add(new Segment(parts.get(i), collection || attribute.isAssociation()));
+            if (collection && collectionPrefix == null) {
+                collectionPrefix = String.join(".", parts.subList(0, i + 1));
+            }
+            type = targetType(attribute);
+        }
+        return new ResolvedPath(filter, List.copyOf(segments), collectionPrefix);
+    }
+
+    private static Attribute<?, ?> findAttribute(ManagedType<?> type, String name, String filter) {
+        try {
+            return type.getAttribute(name);
+        } catch (IllegalArgumentException e) {
+            throw new FilterNotAllowedException(FILTER_NOT_ALLOWED, new Object[]{filter});
+        }
+    }
+
+    private static ManagedType<?> targetType(Attribute<?, ?> attribute) {
+        Type<?> type = null;
+        if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+            type = plural.getElementType();
+        } else if (attribute instanceof SingularAttribute<?, ?> singular) {
+            type = singular.getType();
+        }
+        return type instanceof ManagedType<?> managedType ? managedType : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate toPredicate(CriteriaBuilder criteriaBuilder, Path<?> path, FilterCondition condition) {
+        var operator = condition.operator();
+        var values = condition.values() == null ? List.of() : condition.values();
+        if (operator == null || !operator.accepts(values.size())) {
+            throw new InvalidFilterValueException(condition.field(), operator);
+        }
+
+        Expression comparable = path;
+        return switch (operator) {
+            case IN -> path.in(convert(condition, path, values));
+            case NOT_IN -> criteriaBuilder.not(path.in(convert(condition, path, values)));
+            case GT -> criteriaBuilder.greaterThan(comparable, convert(condition, path, values.get(0)));
+            case GTE -> criteriaBuilder.greaterThanOrEqualTo(comparable, convert(condition, path, values.get(0)));
+            case LT -> criteriaBuilder.lessThan(comparable, convert(condition, path, values.get(0)));
+            case LTE -> criteriaBuilder.lessThanOrEqualTo(comparable, convert(condition, path, values.get(0)));
+            case BETWEEN -> criteriaBuilder.between(
+                comparable,
+                convert(condition, path, values.get(0)),
+                convert(condition, path, values.get(1))
+            );
+            case STARTS_WITH -> like(criteriaBuilder, path, condition, escapeLike(values.get(0)) + "%");
+            case NOT_STARTS_WITH -> criteriaBuilder.not(
+                like(criteriaBuilder, path, condition, escapeLike(values.get(0)) + "%"));
+            case CONTAINS -> like(criteriaBuilder, path, condition, "%" + escapeLike(values.get(0)) + "%");
+            case IS_NULL -> path.isNull();
+            case IS_NOT_NULL -> path.isNotNull();
+        };
+    }
+
+    // Префиксный LIKE без функций над колонкой обслуживается индексом text_pattern_ops / gin_trgm_ops
+    @SuppressWarnings("unchecked")
+    private static Predicate like(
+        CriteriaBuilder criteriaBuilder,
+        Path<?> path,
+        FilterCondition condition,
+        String pattern
+    ) {
+        if (!String.class.equals(path.getJavaType())) {
+            throw new InvalidFilterValueException(condition.field(), condition.operator());
+        }
+        return criteriaBuilder.like((Path<String>) path, pattern, LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(Object value) {
+        return String.valueOf(value)
+            .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+    }
+
+    private static List<Object> convert(FilterCondition condition, Path<?> path, List<Object> values) {
+        return values.stream()
+            .<Object>map(value -> convert(condition, path, value))
+            .toList();
+    }
+
+    // Значения из JSON приводятся к типу поля, чтобы параметр запроса совпадал с типом колонки
+    @SuppressWarnings("rawtypes")
+    private static Comparable convert(FilterCondition condition, Path<?> path, Object value) {
+        try {
+            var converted = CONVERSION_SERVICE.convert(value, path.getJavaType());
+            if (converted instanceof Comparable comparable) {
+                return comparable;
+            }
+        } catch (ConversionException | DateTimeParseException e) {
+            throw new InvalidFilterValueException(condition.field(), condition.operator());
+        }
+        throw new InvalidFilterValueException(condition.field(), condition.operator());
+    }
+
+    // Форма предиката: пути без коллекций и пути, сгруппированные по первой коллекции
+    record CompiledFilter(List<ResolvedPath> direct, Map<String, List<ResolvedPath>> collections) {
+
+        Predicate toPredicate(
+            Root<?> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder criteriaBuilder,
+            List<FilterCondition> conditions
+        ) {
+            Map<String, List<FilterCondition>> byField = conditions.stream()
+                .collect(Collectors.groupingBy(FilterCondition::field));
+            List<Predicate> predicates = new ArrayList<>();
+            Map<String, From<?, ?>> joins = new HashMap<>();
+            direct.forEach(path ->
+                predicates.addAll(path.toPredicates(root, joins, criteriaBuilder, byField.get(path.filter()))));
+
+            collections.values().forEach(paths -> {
+                Subquery<Integer> subquery = query.subquery(Integer.class);
+                Root<?> correlated = subquery.correlate(root);
+                Map<String, From<?, ?>> subqueryJoins = new HashMap<>();
+                subquery.select(criteriaBuilder.literal(1)).where(paths.stream()
+                    .flatMap(path -> path.toPredicates(
+                        correlated, subqueryJoins, criteriaBuilder, byField.get(path.filter())).stream())
+                    .toArray(Predicate[]::new));
+                predicates.add(criteriaBuilder.exists(subquery));
+            });
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        }
+    }
+
+    record ResolvedPath(String filter, List<Segment> segments, String collectionPrefix) {
+
+        List<Predicate> toPredicates(
+            From<?, ?> from,
+            Map<String, From<?, ?>> joins,
+            CriteriaBuilder criteriaBuilder,
+            List<FilterCondition> conditions
+        ) {
+            var path = resolve(from, joins);
+            return conditions.stream()
+                .map(condition -> FilterCompiler.toPredicate(criteriaBuilder, path, condition))
+                .toList();
+        }
+
+        // Связи соединяются через join, уже созданные в этом запросе join переиспользуются по префиксу пути
+        private Path<?> resolve(From<?, ?> from, Map<String, From<?, ?>> joins) {
+            Path<?> current = from;
+            var prefix = new StringBuilder();
+            for (var segment : segments) {
+                prefix.append('.').append(segment.name());
+                if (segment.join() && current instanceof From<?, ?> currentFrom) {
+                    var key = prefix.toString();
+                    var join = joins.get(key);
+                    if (join == null) {
+                        join = currentFrom.join(segment.name());
+                        joins.put(key, join);
+                    }
+                    current = join;
+                } else {
+                    current = current.get(segment.name());
+                }
+            }
+            return current;
+        }
+    }
+
+    record Segment(String name, boolean join) { }
+
+    private record ShapeKey(Class<?> entity, Set<String> filters) { }
+}
@@ -0,0 +1,16 @@
+package caselab.domain.entity.search;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Условие фильтрации по полю")
+public record FilterCondition(
+    @Schema(description = "Путь к полю, из списка доступных фильтров", example = "documentVersions.createdAt")
+    String field,
+    @Schema(description = "Оператор сравнения", example = "GTE")
+    FilterOperator operator,
+    @Schema(description = "Значения: одно для сравнений и префикса, два для BETWEEN, ни одного для IS_NULL",
+        example = "[\"2024-11-01T00:00:00Z\"]")
+    List<Object> values
+) {
+}
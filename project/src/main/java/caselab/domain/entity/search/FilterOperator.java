@@ -0,0 +1,26 @@
+package caselab.domain.entity.search;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum FilterOperator {
+    IN(-1),
+    NOT_IN(-1),
+    GT(1),
+    GTE(1),
+    LT(1),
+    LTE(1),
+    BETWEEN(2),
+    STARTS_WITH(1),
+    NOT_STARTS_WITH(1),
+    CONTAINS(1),
+    IS_NULL(0),
+    IS_NOT_NULL(0);
+
+    // Количество значений, -1 - одно или больше
+    private final int arity;
+
+    boolean accepts(int count) {
+        return arity < 0 ? count > 0 : count == arity;
+    }
+}
@@ -1,14 +1,12 @@
 package caselab.domain.entity.search;
 
 import caselab.configuration.GenericFilterProperties;
-import caselab.exception.search.FilterNotAllowedException;
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.Path;
-import jakarta.persistence.criteria.Predicate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -18,49 +16,41 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class GenericSpecifications {
 
-    private static List<String> allowedFilters;
+    private static volatile FilterCompiler filterCompiler = new FilterCompiler(Set.of());
 
     private final GenericFilterProperties genericFilterProperties;
 
     @PostConstruct
     public void init() {
-        allowedFilters = genericFilterProperties.getFilters();
+        filterCompiler = new FilterCompiler(genericFilterProperties.getFilters());
     }
 
     public static <T> Specification<T> filterBy(Map<String, List<Object>> filters) {
+        return filterBy(filters, null);
+    }
+
+    // Фильтры-списки равносильны условиям IN, пустые списки игнорируются
+    public static <T> Specification<T> filterBy(Map<String, List<Object>> filters, List<FilterCondition> conditions) {
         return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+            List<FilterCondition> allConditions = new ArrayList<>();
             if (filters != null) {
+                // Недопустимые ключи отклоняются, даже если значения для них не переданы
+                filterCompiler.checkAllowed(filters.keySet());
                 filters.forEach((fieldName, values) -> {
-                    if (isFilterAllowed(fieldName)) {
-                        if (values != null && !values.isEmpty()) {
-                            Path<?> path = resolvePath(root, fieldName); // Рекурсивное разрешение пути
-                            predicates.add(path.in(values));
-                        }
-                    } else {
-                        throw new FilterNotAllowedException("filter.not.allowed", new Object[]{fieldName});
+                    if (values != null && !values.isEmpty()) {
+                        allConditions.add(new FilterCondition(fieldName, FilterOperator.IN, values));
                     }
                 });
             }
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-    }
-
-    private static Path<?> resolvePath(Path<?> root, String fieldName) {
-        String[] pathParts = fieldName.split("\\.");
-        Path<?> currentPath = root;
-        for (String part : pathParts) {
-            if (currentPath instanceof Join) {
-                currentPath = ((Join<?, ?>) currentPath).join(part);
-            } else {
-                currentPath = currentPath.get(part);
+            if (conditions != null) {
+                allConditions.addAll(conditions);
             }
-        }
-        return currentPath;
-    }
 
-    private static boolean isFilterAllowed(String filter) {
-        return allowedFilters != null && allowedFilters.contains(filter);
+            var fields = allConditions.stream()
+                .map(FilterCondition::field)
+                .collect(Collectors.toSet());
+            return filterCompiler.compile(root.getModel(), fields)
+                .toPredicate(root, query, criteriaBuilder, allConditions);
+        };
     }
 }
@@ -27,6 +27,7 @@ import lombok.NoArgsConstructor;
           <li><b>documentType.id</b> — идентификатор типа документа</li>
           <li><b>documentType.name</b> — название типа документа</li>
           <li><b>status</b> — статус документа</li>
+          <li><b>documentVersions.createdAt</b> — дата создания версии документа</li>
         </ul>
         <h4>Фильтрация по пользователям:</h4>
         <ul>
@@ -43,6 +44,17 @@ import lombok.NoArgsConstructor;
           <li><b>documentTypesToAttributes.attribute.name</b> — название атрибута</li>
           <li><b>documentTypesToAttributes.attribute.type</b> — тип атрибута</li>
         </ul>
+        <h3>Операторы условий:</h3>
+        <ul>
+          <li><b>IN</b>, <b>NOT_IN</b> — значение из списка / не из списка</li>
+          <li><b>GT</b>, <b>GTE</b>, <b>LT</b>, <b>LTE</b>, <b>BETWEEN</b> — сравнение и диапазон
+          (границы BETWEEN включены)</li>
+          <li><b>STARTS_WITH</b>, <b>NOT_STARTS_WITH</b> — префикс строки с учетом регистра</li>
+          <li><b>CONTAINS</b> — подстрока с учетом регистра</li>
+          <li><b>IS_NULL</b>, <b>IS_NOT_NULL</b> — наличие значения</li>
+        </ul>
+        Условия по полям коллекций (documentTypesToAttributes, documentVersions) должны выполняться
+        для одного и того же элемента коллекции.
         """
 )
 public class SearchRequest {
@@ -57,6 +69,13 @@ public class SearchRequest {
     )
     private Map<String, List<Object>> filters;
 
+    @Schema(
+        description = "Условия с операторами, объединяются с filters через AND",
+        example = "[{\"field\": \"documentVersions.createdAt\", \"operator\": \"GTE\", "
+            + "\"values\": [\"2024-11-01T00:00:00Z\"]}]"
+    )
+    private List<FilterCondition> conditions;
+
     public void addFilter(String key, List<Object> values) {
         if (filters == null) {
             filters = new HashMap<>();
@@ -0,0 +1,85 @@
+package caselab.domain.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Корзины в памяти узла: лимит действует отдельно на каждом экземпляре приложения.
+// Подходит для локального запуска и единственного узла
+public class LocalProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private final ConcurrentMap<String, byte[]> buckets;
+
+    public LocalProxyManager(long maximumSize, Duration expireAfterAccess) {
+        super(ClientSideConfig.getDefault());
+        Cache<String, byte[]> cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(expireAfterAccess.toNanos(), TimeUnit.NANOSECONDS)
+            .build();
+        this.buckets = cache.asMap();
+    }
+
+    // Массивы сравниваются по ссылке: замена проходит, только если с момента чтения состояние не заменили
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable(buckets.get(key));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                return originalData == null
+                    ? buckets.putIfAbsent(key, newData) == null
+                    : buckets.replace(key, originalData, newData);
+            }
+        };
+    }
+
+    // Операции над картой не блокируются, поэтому асинхронный вариант завершается сразу в вызывающем потоке
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        var operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return CompletableFuture.completedFuture(operation.getStateData());
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(
+                byte[] originalData,
+                byte[] newData,
+                RemoteBucketState newState
+            ) {
+                return CompletableFuture.completedFuture(operation.compareAndSwap(originalData, newData, newState));
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        buckets.remove(key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        buckets.remove(key);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package caselab.domain.ratelimit;
+
+import caselab.domain.entity.RateLimitBucket;
+import caselab.domain.repository.RateLimitBucketRepository;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Корзины bucket4j в таблице rate_limit_bucket, общие для всех узлов приложения.
+// Состояние меняется через compare-and-swap: UPDATE применяется, только если строка не изменилась с момента чтения,
+// иначе bucket4j перечитывает состояние и повторяет операцию. Блокировка строки держится только на время UPDATE
+public class PostgresProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PostgresProxyManager(
+        RateLimitBucketRepository rateLimitBucketRepository,
+        TransactionTemplate transactionTemplate
+    ) {
+        super(ClientSideConfig.getDefault());
+        this.rateLimitBucketRepository = rateLimitBucketRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return rateLimitBucketRepository.findById(key).map(RateLimitBucket::getState);
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                var expiresAt = expiresAt(newState);
+                Integer updated = transactionTemplate.execute(status -> originalData == null
+                    ? rateLimitBucketRepository.insertIfAbsent(key, newData, expiresAt)
+                    : rateLimitBucketRepository.compareAndSet(key, originalData, newData, expiresAt));
+                return updated != null && updated == 1;
+            }
+        };
+    }
+
+    // Запросы к БД блокируют поток, поэтому асинхронные операции выполняются на виртуальных потоках
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        var operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return CompletableFuture.supplyAsync(operation::getStateData, asyncExecutor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(
+                byte[] originalData,
+                byte[] newData,
+                RemoteBucketState newState
+            ) {
+                return CompletableFuture.supplyAsync(
+                    () -> operation.compareAndSwap(originalData, newData, newState),
+                    asyncExecutor
+                );
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        rateLimitBucketRepository.deleteById(key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    // Полностью восстановленная корзина неотличима от отсутствующей, после этого момента строку можно удалить
+    private static OffsetDateTime expiresAt(RemoteBucketState state) {
+        long nowNanos = System.currentTimeMillis() * NANOS_PER_MILLI;
+        return OffsetDateTime.now().plusNanos(state.calculateFullRefillingTime(nowNanos));
+    }
+}
@@ -0,0 +1,25 @@
+package caselab.domain.repository;
+
+import caselab.domain.entity.AccessTokenRevocation;
+import java.time.OffsetDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, String> {
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO access_token_revocation(email, revoked_at)
+        VALUES (:email, :revokedAt)
+        ON CONFLICT (email) DO UPDATE SET revoked_at = greatest(access_token_revocation.revoked_at, :revokedAt)
+        """, nativeQuery = true)
+    int revoke(@Param("email") String email, @Param("revokedAt") OffsetDateTime revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM AccessTokenRevocation r WHERE r.revokedAt < :threshold")
+    int deleteExpired(@Param("threshold") OffsetDateTime threshold);
+}
@@ -1,9 +1,19 @@
 package caselab.domain.repository;
 
 import caselab.domain.entity.DocumentType;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DocumentTypesRepository extends JpaRepository<DocumentType, Long>,
     JpaSpecificationExecutor<DocumentType> {
+
+    // Все типы со связями и атрибутами одним запросом
+    @Query("""
+        SELECT DISTINCT t FROM DocumentType t
+        LEFT JOIN FETCH t.documentTypesToAttributes l
+        LEFT JOIN FETCH l.attribute
+        """)
+    List<DocumentType> findAllWithAttributes();
 }
@@ -1,14 +1,21 @@
 package caselab.domain.repository;
 
 import caselab.domain.entity.DocumentVersion;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DocumentVersionRepository extends JpaRepository<DocumentVersion, Long> {
+public interface DocumentVersionRepository extends JpaRepository<DocumentVersion, Long>,
+    JpaSpecificationExecutor<DocumentVersion> {
 
     Page<DocumentVersion> findByDocumentId(Pageable pageable, Long id);
 
+    @EntityGraph(attributePaths = {"attributeValues", "attributeValues.attribute"})
+    List<DocumentVersion> findAllByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,23 @@
+package caselab.domain.repository;
+
+import caselab.domain.entity.EmailOutboxMessage;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Готовые к отправке письма; письма, захваченные другим узлом, пропускаются
+    @Query(value = """
+        SELECT * FROM email_outbox
+        WHERE status = 'PENDING' AND next_attempt_at <= :now
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<EmailOutboxMessage> findReadyForUpdate(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+}
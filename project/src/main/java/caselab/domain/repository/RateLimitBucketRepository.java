@@ -0,0 +1,51 @@
+package caselab.domain.repository;
+
+import caselab.domain.entity.RateLimitBucket;
+import java.time.OffsetDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO rate_limit_bucket(bucket_key, state, expires_at)
+        VALUES (:key, :state, :expiresAt)
+        ON CONFLICT (bucket_key) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("key") String key,
+        @Param("state") byte[] state,
+        @Param("expiresAt") OffsetDateTime expiresAt
+    );
+
+    // Обновляет состояние, только если оно не изменилось с момента чтения
+    @Modifying
+    @Query(value = """
+        UPDATE rate_limit_bucket
+        SET state = :state, expires_at = :expiresAt
+        WHERE bucket_key = :key AND state = :expected
+        """, nativeQuery = true)
+    int compareAndSet(
+        @Param("key") String key,
+        @Param("expected") byte[] expected,
+        @Param("state") byte[] state,
+        @Param("expiresAt") OffsetDateTime expiresAt
+    );
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM rate_limit_bucket
+        WHERE bucket_key IN (
+            SELECT bucket_key FROM rate_limit_bucket
+            WHERE expires_at < :threshold
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        """, nativeQuery = true)
+    int deleteExpired(@Param("threshold") OffsetDateTime threshold, @Param("limit") int limit);
+}
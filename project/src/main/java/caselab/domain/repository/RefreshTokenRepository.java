@@ -1,10 +1,35 @@
 package caselab.domain.repository;
 
 import caselab.domain.entity.RefreshToken;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Помечает токен использованным, только если его еще не использовал параллельный запрос
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotated = true WHERE t.id = :id AND t.rotated = false")
+    int markRotated(@Param("id") long id);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM refresh_tokens
+        WHERE id IN (
+            SELECT id FROM refresh_tokens
+            WHERE expires_date < :threshold
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        """, nativeQuery = true)
+    int deleteExpired(@Param("threshold") LocalDateTime threshold, @Param("limit") int limit);
 }
@@ -3,6 +3,8 @@ package caselab.domain.repository;
 import caselab.domain.entity.ApplicationUser;
 import caselab.domain.entity.DocumentVersion;
 import caselab.domain.entity.Signature;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -13,4 +15,6 @@ public interface SignatureRepository extends JpaRepository<Signature, Long> {
         ApplicationUser applicationUser,
         DocumentVersion documentVersion
     );
+
+    List<Signature> findAllByApplicationUserIdAndDocumentVersionIdIn(Long userId, Collection<Long> documentVersionIds);
 }
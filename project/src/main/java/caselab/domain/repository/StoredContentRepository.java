@@ -0,0 +1,42 @@
+package caselab.domain.repository;
+
+import caselab.domain.entity.StoredContent;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredContentRepository extends JpaRepository<StoredContent, String> {
+
+    // Возвращает true, если запись создана этим вызовом и объект нужно загрузить в хранилище.
+    // Строка остается заблокированной до конца транзакции, поэтому сборщик мусора ее пропустит,
+    // а параллельная загрузка того же содержимого дождется результата текущей
+    @Query(value = """
+        INSERT INTO stored_content(name, size, ref_count, touched_at)
+        VALUES (:name, :size, 0, now())
+        ON CONFLICT (name) DO UPDATE SET touched_at = now()
+        RETURNING xmax = 0
+        """, nativeQuery = true)
+    boolean register(@Param("name") String name, @Param("size") long size);
+
+    @Query(value = """
+        SELECT * FROM stored_content
+        WHERE ref_count = 0 AND touched_at < :threshold
+        ORDER BY touched_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<StoredContent> findGarbageForUpdate(
+        @Param("threshold") OffsetDateTime threshold,
+        @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query("DELETE FROM StoredContent c WHERE c.name IN :names AND c.refCount = 0")
+    int deleteUnreferenced(@Param("names") Collection<String> names);
+}
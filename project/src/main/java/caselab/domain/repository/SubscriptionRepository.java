@@ -1,9 +1,12 @@
 package caselab.domain.repository;
 
 import caselab.domain.entity.Subscription;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,6 +14,11 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     List<Subscription> findAllByDocumentId(Long documentId);
 
+    @Query("SELECT s.userEmail FROM Subscription s WHERE s.documentId = :documentId")
+    List<String> findUserEmailsByDocumentId(@Param("documentId") Long documentId);
+
+    List<Subscription> findAllByDocumentIdIn(Collection<Long> documentIds);
+
     List<Subscription> findAllByUserEmail(String userEmail);
 
     Optional<Subscription> findFirstByDocumentIdAndUserEmail(Long documentId, String userEmail);
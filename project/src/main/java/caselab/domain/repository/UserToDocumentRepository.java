@@ -1,9 +1,15 @@
 package caselab.domain.repository;
 
 import caselab.domain.entity.UserToDocument;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserToDocumentRepository extends JpaRepository<UserToDocument, Long> {
     Optional<UserToDocument> findByApplicationUserIdAndDocumentId(Long userId, Long documentId);
+
+    @EntityGraph(attributePaths = "documentPermissions")
+    List<UserToDocument> findAllByApplicationUserIdAndDocumentIdIn(Long userId, Collection<Long> documentIds);
 }
@@ -2,10 +2,29 @@ package caselab.domain.repository;
 
 import caselab.domain.entity.DocumentVersion;
 import caselab.domain.entity.VotingProcess;
+import caselab.domain.entity.enums.VotingProcessStatus;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface VotingProcessRepository extends JpaRepository<VotingProcess, Long> {
 
     Optional<VotingProcess> findByDocumentVersion(DocumentVersion documentVersion);
+
+    // Истекшие голосования в порядке дедлайна. Строки блокируются до конца транзакции,
+    // уже заблокированные другим узлом пропускаются. Использует индекс voting_process_in_progress_deadline_idx
+    @Query(value = """
+        SELECT * FROM voting_process
+        WHERE status = 'IN_PROGRESS' AND deadline <= :now
+        ORDER BY deadline
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<VotingProcess> findExpiredForUpdate(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT min(v.deadline) FROM VotingProcess v WHERE v.status = :status")
+    Optional<OffsetDateTime> findNearestDeadline(@Param("status") VotingProcessStatus status);
 }
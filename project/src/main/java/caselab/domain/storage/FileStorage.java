@@ -9,6 +9,15 @@ public interface FileStorage {
 
     InputStream get(String url);
 
+    InputStream get(String url, long offset, long length);
+
+    // Для объекта, метаданные которого уже получены через stat: реализация может не запрашивать их повторно
+    default InputStream get(StoredObject object, long offset, long length) {
+        return get(object.name(), offset, length);
+    }
+
+    StoredObject stat(String url);
+
     boolean delete(String url);
 
 }
@@ -0,0 +1,12 @@
+package caselab.domain.storage;
+
+import java.time.Instant;
+
+public record StoredObject(
+    String name,
+    long size,
+    String contentType,
+    String etag,
+    Instant lastModified
+) {
+}
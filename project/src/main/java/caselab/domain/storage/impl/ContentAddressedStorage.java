@@ -0,0 +1,151 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.repository.StoredContentRepository;
+import caselab.domain.storage.FileStorage;
+import caselab.domain.storage.StoredObject;
+import caselab.domain.storage.exception.DocumentStorageException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import static org.apache.commons.io.FilenameUtils.getExtension;
+
+// Хранилище с адресацией по содержимому: имя объекта - SHA-256 файла, одинаковые файлы хранятся один раз.
+// Хэш считается по уже принятому файлу до обращения к MinIO: если содержимое уже хранится, файл не передается.
+// Запись stored_content создается в транзакции вызывающего кода, отдельное соединение не занимается.
+// Число ссылок на объект ведет таблица stored_content, неиспользуемые объекты удаляет StoredContentCollector
+@Slf4j
+public class ContentAddressedStorage implements FileStorage {
+
+    private final DocumentVersionStorage objectStorage;
+    private final StoredContentRepository storedContentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor restorer;
+    private final Counter deduplicated;
+
+    public ContentAddressedStorage(
+        DocumentVersionStorage objectStorage,
+        StoredContentRepository storedContentRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this(
+            objectStorage,
+            storedContentRepository,
+            transactionManager,
+            meterRegistry,
+            Executors.newVirtualThreadPerTaskExecutor()
+        );
+    }
+
+    ContentAddressedStorage(
+        DocumentVersionStorage objectStorage,
+        StoredContentRepository storedContentRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        Executor restorer
+    ) {
+        this.objectStorage = objectStorage;
+        this.storedContentRepository = storedContentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.restorer = restorer;
+        this.deduplicated = Counter.builder("storage.upload.deduplicated")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String put(MultipartFile file) {
+        if (file.isEmpty() || file.getOriginalFilename() == null) {
+            log.error("Document upload failed. Document must have name");
+            throw new DocumentStorageException("Document must have name");
+        }
+
+        // Расширение сохраняется в имени, чтобы клиенты по-прежнему могли определить тип файла по contentName
+        String name = sha256(file) + "." + getExtension(file.getOriginalFilename());
+        long size = file.getSize();
+        // Строка блокируется до конца транзакции: параллельная загрузка того же содержимого дождется ее окончания
+        boolean created = Boolean.TRUE.equals(
+            transactionTemplate.execute(status -> storedContentRepository.register(name, size)));
+        // Объекта может не быть, если загрузка для уже существующей строки когда-то не удалась
+        if (!created && objectStorage.exists(name)) {
+            deduplicated.increment();
+            log.debug("Document content already stored with name: " + name);
+            return name;
+        }
+
+        objectStorage.put(file, name);
+        if (created) {
+            restoreOnRollback(name, size);
+        }
+        return name;
+    }
+
+    @Override
+    public InputStream get(String url) {
+        return objectStorage.get(url);
+    }
+
+    @Override
+    public InputStream get(String url, long offset, long length) {
+        return objectStorage.get(url, offset, length);
+    }
+
+    @Override
+    public StoredObject stat(String url) {
+        return objectStorage.stat(url);
+    }
+
+    // Объект может использоваться другими версиями, поэтому сразу не удаляется:
+    // после удаления последней ссылки его уберет сборщик мусора
+    @Override
+    public boolean delete(String url) {
+        return false;
+    }
+
+    // При откате транзакции вызывающего кода созданная строка исчезнет, а загруженный объект останется.
+    // После отката строка создается заново с ref_count 0, и сборщик удалит объект по истечении grace-period.
+    // Запись выполняется на другом потоке, чтобы не занимать второе соединение, пока первое еще не возвращено в пул
+    private void restoreOnRollback(String name, long size) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    restorer.execute(() -> restore(name, size));
+                }
+            }
+        });
+    }
+
+    private void restore(String name, long size) {
+        try {
+            transactionTemplate.execute(status -> storedContentRepository.register(name, size));
+        } catch (RuntimeException e) {
+            log.warn("Registering rolled back content " + name + " failed: " + e.getMessage());
+        }
+    }
+
+    private String sha256(MultipartFile file) {
+        try (var inputStream = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(inputStream.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.storage.FileStorage;
+import caselab.domain.storage.StoredObject;
+import caselab.domain.storage.exception.DocumentStorageException;
+import com.google.common.io.ByteStreams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+// Локальный дисковый кэш поверх хранилища. Объект целиком скачивается при первом чтении,
+// дальнейшие чтения (в том числе диапазоны) обслуживаются с диска через FileChannel.
+// Одновременные промахи по одному объекту ждут одну загрузку. Диапазон при промахе читается из хранилища,
+// а объект загружается в кэш в фоне.
+// Размер кэша ограничен в байтах, вытесняются давно не читавшиеся объекты.
+// Запись кэша сбрасывается, если ETag объекта в stat отличается от сохраненного.
+// Индекс хранится в памяти, при старте каталог кэша очищается
+@Slf4j
+public class DiskCacheStorage implements FileStorage {
+
+    private static final String ENTRY_PREFIX = "entry-";
+    private static final String METRIC_NAME = "storage.cache";
+
+    private final FileStorage delegate;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Executor loader;
+
+    // Загрузки в кэш, которые еще не завершились
+    private final ConcurrentMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+    // Порядок доступа: первым идет объект, который дольше всех не читали
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter servedBytes;
+
+    public DiskCacheStorage(
+        FileStorage delegate,
+        Path directory,
+        DataSize maxSize,
+        DataSize maxEntrySize,
+        MeterRegistry meterRegistry
+    ) {
+        this(delegate, directory, maxSize, maxEntrySize, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    DiskCacheStorage(
+        FileStorage delegate,
+        Path directory,
+        DataSize maxSize,
+        DataSize maxEntrySize,
+        MeterRegistry meterRegistry,
+        Executor loader
+    ) {
+        this.delegate = delegate;
+        this.loader = loader;
+        this.directory = directory;
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+        prepareDirectory();
+
+        this.hits = Counter.builder(METRIC_NAME + ".hits")
+            .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME + ".misses")
+            .register(meterRegistry);
+        this.servedBytes = Counter.builder(METRIC_NAME + ".served")
+            .baseUnit(BaseUnits.BYTES)
+            .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", this, DiskCacheStorage::getUsedBytes)
+            .baseUnit(BaseUnits.BYTES)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String put(MultipartFile obj) {
+        return delegate.put(obj);
+    }
+
+    @Override
+    public InputStream get(String url) {
+        return open(url, null, 0, -1);
+    }
+
+    @Override
+    public InputStream get(String url, long offset, long length) {
+        return open(url, null, offset, length);
+    }
+
+    @Override
+    public InputStream get(StoredObject object, long offset, long length) {
+        return open(object.name(), object, offset, length);
+    }
+
+    @Override
+    public StoredObject stat(String url) {
+        StoredObject object = delegate.stat(url);
+        invalidate(url, object.etag());
+        return object;
+    }
+
+    @Override
+    public boolean delete(String url) {
+        invalidate(url, null);
+        return delegate.delete(url);
+    }
+
+    // length < 0 - до конца объекта. object - уже известные метаданные, null - запросить через stat
+    private InputStream open(String url, StoredObject object, long offset, long length) {
+        Entry entry = find(url);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            StoredObject stored = object != null ? object : delegate.stat(url);
+            // Слишком большие объекты не кэшируются, чтобы один файл не вытеснил весь кэш
+            if (stored.size() <= maxEntryBytes) {
+                CompletableFuture<Entry> loaded = load(url, stored);
+                // Диапазон отдается из хранилища, не дожидаясь загрузки всего объекта
+                if (offset == 0 && (length < 0 || length >= stored.size())) {
+                    entry = loaded.join();
+                }
+            }
+        }
+
+        if (entry != null) {
+            long remaining = Math.max(entry.size() - offset, 0);
+            long toRead = length < 0 ? remaining : Math.min(length, remaining);
+            try {
+                InputStream inputStream = read(entry, offset, toRead);
+                servedBytes.increment(toRead);
+                return inputStream;
+            } catch (IOException e) {
+                // Файл мог быть вытеснен между поиском и открытием
+                log.debug("Reading cached {} failed: {}", url, e.getMessage());
+                invalidate(url, null);
+            }
+        }
+        return length < 0 ? delegate.get(url) : delegate.get(url, offset, length);
+    }
+
+    private InputStream read(Entry entry, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(entry.path(), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return ByteStreams.limit(Channels.newInputStream(channel), length);
+    }
+
+    // Возвращает уже идущую загрузку объекта или запускает новую
+    private CompletableFuture<Entry> load(String url, StoredObject object) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = loading.putIfAbsent(url, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        loader.execute(() -> {
+            try {
+                // Запись могла появиться между промахом и началом загрузки
+                Entry entry = find(url);
+                created.complete(entry != null ? entry : download(url, object));
+            } catch (RuntimeException e) {
+                log.warn("Loading {} into cache failed: {}", url, e.getMessage());
+                created.complete(null);
+            } finally {
+                loading.remove(url, created);
+            }
+        });
+        return created;
+    }
+
+    // Скачивает объект во временный файл каталога кэша и регистрирует его
+    private Entry download(String url, StoredObject object) {
+        Path path = null;
+        try (InputStream inputStream = delegate.get(url)) {
+            path = Files.createTempFile(directory, ENTRY_PREFIX, ".bin");
+            long copied = Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            if (copied != object.size()) {
+                throw new IOException("Expected " + object.size() + " bytes, got " + copied);
+            }
+        } catch (IOException | DocumentStorageException e) {
+            log.warn("Caching {} failed: {}", url, e.getMessage());
+            deleteQuietly(path);
+            return null;
+        }
+
+        Entry entry = new Entry(path, object.size(), object.etag());
+        register(url, entry);
+        return entry;
+    }
+
+    private Entry find(String url) {
+        synchronized (entries) {
+            return entries.get(url);
+        }
+    }
+
+    private void register(String url, Entry entry) {
+        List<Path> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Entry previous = entries.put(url, entry);
+            if (previous != null) {
+                usedBytes -= previous.size();
+                evicted.add(previous.path());
+            }
+            usedBytes += entry.size();
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && eldest.hasNext()) {
+                Entry candidate = eldest.next().getValue();
+                if (candidate == entry) {
+                    continue;
+                }
+                eldest.remove();
+                usedBytes -= candidate.size();
+                evicted.add(candidate.path());
+            }
+        }
+        evicted.forEach(this::deleteQuietly);
+    }
+
+    // etag == null - удалить запись безусловно
+    private void invalidate(String url, String etag) {
+        Entry removed;
+        synchronized (entries) {
+            Entry entry = entries.get(url);
+            if (entry == null || etag != null && Objects.equals(entry.etag(), etag)) {
+                return;
+            }
+            removed = entries.remove(url);
+            usedBytes -= removed.size();
+        }
+        deleteQuietly(removed.path());
+    }
+
+    private long getUsedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().startsWith(ENTRY_PREFIX))
+                    .forEach(this::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new DocumentStorageException("Cache directory " + directory + " is not available", e);
+        }
+    }
+
+    // Открытые на чтение файлы остаются доступны читателям до закрытия потока
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Deleting cached file {} failed: {}", path, e.getMessage());
+        }
+    }
+
+    private record Entry(Path path, long size, String etag) { }
+}
@@ -1,11 +1,13 @@
 package caselab.domain.storage.impl;
 
 import caselab.domain.storage.FileStorage;
+import caselab.domain.storage.StoredObject;
 import caselab.domain.storage.exception.DocumentStorageException;
 import io.minio.GetObjectArgs;
 import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
 import io.minio.StatObjectArgs;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InsufficientDataException;
@@ -13,10 +15,14 @@ import io.minio.errors.InternalException;
 import io.minio.errors.InvalidResponseException;
 import io.minio.errors.ServerException;
 import io.minio.errors.XmlParserException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +36,10 @@ import static org.apache.commons.io.FilenameUtils.getExtension;
 @RequiredArgsConstructor
 public class DocumentVersionStorage implements FileStorage {
 
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
     private final MinioClient minioClient;
+    private final MinioMultipartUploader uploader;
 
     @Value("${minio.buckets}")
     private String bucket;
@@ -43,57 +52,33 @@ public class DocumentVersionStorage implements FileStorage {
             throw new DocumentStorageException("Document must have name");
         }
 
-        String fileName = generateFileName(file);
-
-        try (InputStream inputStream = file.getInputStream()) {
-            upload(inputStream, fileName);
-        } catch (IOException e) {
-            throw new DocumentStorageException(e.getMessage(), e.getCause());
-        }
-
-        log.debug("Document was successfully uploaded with name: " + fileName);
-        return fileName;
+        // Имя со случайным UUID уникально без проверки существования объекта в хранилище
+        return put(file, UUID.randomUUID() + "." + getExtension(file.getOriginalFilename()));
     }
 
-    private void upload(InputStream inputStream, String fileName) {
-        try {
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .stream(inputStream, inputStream.available(), -1)
-                    .bucket(bucket)
-                    .object(fileName)
-                    .build());
-        } catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidKeyException
-                 | InvalidResponseException | NoSuchAlgorithmException | ServerException | XmlParserException
-                 | IOException e) {
-            throw new DocumentStorageException(e.getMessage(), e.getCause());
-        }
-    }
+    // Загружает файл под заданным именем, существующий объект с тем же именем перезаписывается
+    public String put(MultipartFile file, String fileName) {
+        String checksum = uploader.upload(file, bucket, fileName);
 
-    private String generateFileName(MultipartFile file) {
-        String extension = getExtension(file.getOriginalFilename());
-        String fileName;
-        do {
-            fileName = UUID.randomUUID() + "." + extension;
-        } while (isObjectExist(fileName));
+        log.debug("Document was successfully uploaded with name: " + fileName + ", sha256: " + checksum);
         return fileName;
     }
 
-    private boolean isObjectExist(String name) {
+    public boolean exists(String fileName) {
         try {
             minioClient.statObject(StatObjectArgs.builder()
                 .bucket(bucket)
-                .object(name)
+                .object(fileName)
                 .build());
             return true;
         } catch (ErrorResponseException e) {
-            if ("NoSuchKey".equals(e.errorResponse().code())) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
                 return false;
-            } else {
-                throw new DocumentStorageException(e.getMessage(), e.getCause());
             }
-        } catch (Exception e) {
-            throw new DocumentStorageException(e.getMessage(), e.getCause());
+            throw new DocumentStorageException(e.getMessage(), e);
+        } catch (InsufficientDataException | InternalException | InvalidKeyException | InvalidResponseException
+                 | IOException | NoSuchAlgorithmException | XmlParserException | ServerException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
         }
     }
 
@@ -113,6 +98,45 @@ public class DocumentVersionStorage implements FileStorage {
         }
     }
 
+    @Override
+    public InputStream get(String fileName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(fileName)
+                    .offset(offset)
+                    .length(length)
+                    .build()
+            );
+        } catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidKeyException
+                 | InvalidResponseException | IOException | NoSuchAlgorithmException | XmlParserException
+                 | ServerException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StoredObject stat(String fileName) {
+        try {
+            var stat = minioClient.statObject(StatObjectArgs.builder()
+                .bucket(bucket)
+                .object(fileName)
+                .build());
+            return new StoredObject(
+                fileName,
+                stat.size(),
+                stat.contentType(),
+                stat.etag(),
+                stat.lastModified().toInstant()
+            );
+        } catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidKeyException
+                 | InvalidResponseException | IOException | NoSuchAlgorithmException | XmlParserException
+                 | ServerException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean delete(String fileName) {
         try {
@@ -129,4 +153,29 @@ public class DocumentVersionStorage implements FileStorage {
             throw new DocumentStorageException(e.getMessage(), e.getCause());
         }
     }
+
+    // Удаляет объекты одним запросом DeleteObjects, отсутствующие объекты ошибкой не считаются
+    public void deleteAll(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return;
+        }
+
+        // Запрос отправляется при обходе результата, в результате только ошибки удаления
+        Iterator<Result<DeleteError>> errors = minioClient.removeObjects(
+            RemoveObjectsArgs.builder()
+                .bucket(bucket)
+                .objects(fileNames.stream().map(DeleteObject::new).toList())
+                .build()
+        ).iterator();
+        try {
+            if (errors.hasNext()) {
+                DeleteError error = errors.next().get();
+                throw new DocumentStorageException("Deleting " + error.objectName() + " failed: " + error.message());
+            }
+        } catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidKeyException
+                 | InvalidResponseException | IOException | NoSuchAlgorithmException | ServerException
+                 | XmlParserException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+    }
 }
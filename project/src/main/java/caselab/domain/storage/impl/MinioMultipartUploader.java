@@ -0,0 +1,223 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.storage.exception.DocumentStorageException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+// Потоковая загрузка файла в MinIO. Файлы больше размера части отправляются multipart-загрузкой:
+// части читаются последовательно в переиспользуемые буферы и отправляются параллельно, не больше
+// minio.upload.concurrency одновременно. SHA-256 считается по ходу чтения, повторного прохода по файлу нет
+@Slf4j
+@Component
+public class MinioMultipartUploader {
+
+    // Минимальный размер части в S3, кроме последней
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long MAX_PART_SIZE = Integer.MAX_VALUE - 8;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String METRIC_NAME = "storage.upload";
+    private static final String MODE_TAG = "mode";
+
+    private final MinioClient minioClient;
+    private final MultipartMinioClient multipartClient;
+    private final int partSize;
+    private final int concurrency;
+
+    private final Timer singleUploadTimer;
+    private final Timer multipartUploadTimer;
+    private final DistributionSummary uploadSize;
+    private final DistributionSummary uploadThroughput;
+    private final Counter uploadFailures;
+
+    public MinioMultipartUploader(
+        MinioClient minioClient,
+        MultipartMinioClient multipartClient,
+        @Value("${minio.upload.part-size:16MB}") DataSize partSize,
+        @Value("${minio.upload.concurrency:4}") int concurrency,
+        MeterRegistry meterRegistry
+    ) {
+        this.minioClient = minioClient;
+        this.multipartClient = multipartClient;
+        this.partSize = (int) Math.min(Math.max(partSize.toBytes(), MIN_PART_SIZE), MAX_PART_SIZE);
+        this.concurrency = Math.max(concurrency, 1);
+
+        this.singleUploadTimer = Timer.builder(METRIC_NAME)
+            .tag(MODE_TAG, "single")
+            .register(meterRegistry);
+        this.multipartUploadTimer = Timer.builder(METRIC_NAME)
+            .tag(MODE_TAG, "multipart")
+            .register(meterRegistry);
+        this.uploadSize = DistributionSummary.builder(METRIC_NAME + ".size")
+            .baseUnit(BaseUnits.BYTES)
+            .register(meterRegistry);
+        this.uploadThroughput = DistributionSummary.builder(METRIC_NAME + ".throughput")
+            .baseUnit("bytes_per_second")
+            .register(meterRegistry);
+        this.uploadFailures = Counter.builder(METRIC_NAME + ".failures")
+            .register(meterRegistry);
+    }
+
+    // Загружает файл под именем object и возвращает его SHA-256 в hex
+    public String upload(MultipartFile file, String bucket, String object) {
+        long size = file.getSize();
+        boolean multipart = size > partSize;
+        long startedAt = System.nanoTime();
+
+        String checksum;
+        try {
+            checksum = multipart ? uploadMultipart(file, bucket, object) : uploadSingle(file, bucket, object);
+        } catch (RuntimeException e) {
+            uploadFailures.increment();
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - startedAt;
+        (multipart ? multipartUploadTimer : singleUploadTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        uploadSize.record(size);
+        uploadThroughput.record(size * NANOS_PER_SECOND / Math.max(elapsed, 1));
+        return checksum;
+    }
+
+    private String uploadSingle(MultipartFile file, String bucket, String object) {
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            minioClient.putObject(
+                PutObjectArgs.builder()
+                    .stream(inputStream, file.getSize(), -1)
+                    .contentType(contentType(file))
+                    .bucket(bucket)
+                    .object(object)
+                    .build());
+        } catch (MinioException | GeneralSecurityException | IOException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String uploadMultipart(MultipartFile file, String bucket, String object) {
+        MessageDigest digest = sha256();
+        String uploadId;
+        try {
+            uploadId = multipartClient.createMultipartUpload(bucket, object, contentType(file)).join();
+        } catch (MinioException | GeneralSecurityException | IOException | CompletionException e) {
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+
+        try {
+            List<CompletableFuture<Part>> parts = uploadParts(file, bucket, object, uploadId, digest);
+            Part[] completed = parts.stream()
+                .map(CompletableFuture::join)
+                .toArray(Part[]::new);
+            multipartClient.completeMultipartUpload(bucket, object, uploadId, completed).join();
+        } catch (MinioException | GeneralSecurityException | IOException | CompletionException e) {
+            abort(bucket, object, uploadId);
+            throw new DocumentStorageException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, object, uploadId);
+            throw new DocumentStorageException(e.getMessage(), e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Одновременно в памяти не больше concurrency буферов: следующая часть читается,
+    // только когда одна из отправленных частей освободила свой буфер
+    private List<CompletableFuture<Part>> uploadParts(
+        MultipartFile file,
+        String bucket,
+        String object,
+        String uploadId,
+        MessageDigest digest
+    ) throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(concurrency);
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        int allocated = 0;
+
+        try (InputStream inputStream = file.getInputStream()) {
+            for (int partNumber = 1; ; partNumber++) {
+                // Если часть уже не загрузилась, дальше файл не читаем - загрузка будет отменена
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                byte[] buffer = buffers.poll();
+                if (buffer == null && allocated < concurrency) {
+                    buffer = new byte[partSize];
+                    allocated++;
+                } else if (buffer == null) {
+                    buffer = buffers.take();
+                }
+
+                int read = inputStream.readNBytes(buffer, 0, partSize);
+                if (read == 0) {
+                    break;
+                }
+                digest.update(buffer, 0, read);
+                parts.add(uploadPart(bucket, object, uploadId, partNumber, buffer, read, buffers));
+                if (read < partSize) {
+                    break;
+                }
+            }
+        }
+        return parts;
+    }
+
+    private CompletableFuture<Part> uploadPart(
+        String bucket,
+        String object,
+        String uploadId,
+        int partNumber,
+        byte[] buffer,
+        int length,
+        BlockingQueue<byte[]> buffers
+    ) throws MinioException, GeneralSecurityException, IOException {
+        return multipartClient.uploadPart(bucket, object, uploadId, partNumber, buffer, length)
+            .whenComplete((part, e) -> buffers.offer(buffer));
+    }
+
+    private void abort(String bucket, String object, String uploadId) {
+        try {
+            multipartClient.abortMultipartUpload(bucket, object, uploadId).join();
+        } catch (Exception e) {
+            log.warn("Aborting multipart upload " + uploadId + " failed: " + e.getMessage());
+        }
+    }
+
+    private String contentType(MultipartFile file) {
+        return file.getContentType() == null ? DEFAULT_CONTENT_TYPE : file.getContentType();
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
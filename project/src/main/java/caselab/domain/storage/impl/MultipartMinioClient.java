@@ -0,0 +1,69 @@
+package caselab.domain.storage.impl;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.AbortMultipartUploadResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.errors.InsufficientDataException;
+import io.minio.errors.InternalException;
+import io.minio.errors.XmlParserException;
+import io.minio.messages.Part;
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+
+// Открывает низкоуровневые операции multipart-загрузки MinIO SDK, чтобы части отправлялись параллельно
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    private static final Multimap<String, String> NO_PARAMS = ImmutableMultimap.of();
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public CompletableFuture<String> createMultipartUpload(String bucket, String object, String contentType)
+        throws InsufficientDataException, InternalException, InvalidKeyException, IOException,
+        NoSuchAlgorithmException, XmlParserException {
+        return createMultipartUploadAsync(
+            bucket,
+            null,
+            object,
+            ImmutableMultimap.of("Content-Type", contentType),
+            NO_PARAMS
+        ).thenApply(response -> response.result().uploadId());
+    }
+
+    public CompletableFuture<Part> uploadPart(
+        String bucket,
+        String object,
+        String uploadId,
+        int partNumber,
+        byte[] data,
+        int length
+    ) throws InsufficientDataException, InternalException, InvalidKeyException, IOException,
+        NoSuchAlgorithmException, XmlParserException {
+        return uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, NO_PARAMS, NO_PARAMS)
+            .thenApply(response -> new Part(response.partNumber(), response.etag()));
+    }
+
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(
+        String bucket,
+        String object,
+        String uploadId,
+        Part[] parts
+    ) throws InsufficientDataException, InternalException, InvalidKeyException, IOException,
+        NoSuchAlgorithmException, XmlParserException {
+        return completeMultipartUploadAsync(bucket, null, object, uploadId, parts, NO_PARAMS, NO_PARAMS);
+    }
+
+    public CompletableFuture<AbortMultipartUploadResponse> abortMultipartUpload(
+        String bucket,
+        String object,
+        String uploadId
+    ) throws InsufficientDataException, InternalException, InvalidKeyException, IOException,
+        NoSuchAlgorithmException, XmlParserException {
+        return abortMultipartUploadAsync(bucket, null, object, uploadId, NO_PARAMS, NO_PARAMS);
+    }
+}
@@ -0,0 +1,11 @@
+package caselab.exception;
+
+import caselab.exception.base.ApplicationForbiddenException;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+public class RefreshTokenReusedException extends ApplicationForbiddenException {
+    public RefreshTokenReusedException() {
+        super("token.refresh_reused", new Object[]{});
+    }
+}
@@ -0,0 +1,12 @@
+package caselab.exception.search;
+
+import caselab.exception.base.ApplicationBadRequestException;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+public class InvalidCursorException extends ApplicationBadRequestException {
+
+    public InvalidCursorException(String cursor) {
+        super("cursor.invalid", new Object[]{cursor});
+    }
+}
@@ -0,0 +1,12 @@
+package caselab.exception.search;
+
+import caselab.exception.base.ApplicationBadRequestException;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+public class InvalidFilterValueException extends ApplicationBadRequestException {
+
+    public InvalidFilterValueException(String field, Object operator) {
+        super("filter.value.invalid", new Object[]{field, operator});
+    }
+}
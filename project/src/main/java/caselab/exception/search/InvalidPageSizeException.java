@@ -0,0 +1,12 @@
+package caselab.exception.search;
+
+import caselab.exception.base.ApplicationBadRequestException;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+public class InvalidPageSizeException extends ApplicationBadRequestException {
+
+    public InvalidPageSizeException(Integer pageSize, int maxPageSize) {
+        super("page.size.invalid", new Object[]{pageSize, maxPageSize});
+    }
+}
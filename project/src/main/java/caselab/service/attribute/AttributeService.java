@@ -6,6 +6,7 @@ import caselab.domain.entity.Attribute;
 import caselab.domain.entity.enums.GlobalPermissionName;
 import caselab.domain.repository.AttributeRepository;
 import caselab.exception.entity.not_found.AttributeNotFoundException;
+import caselab.service.types.DocumentTypeSchemaCache;
 import caselab.service.util.PageUtil;
 import caselab.service.util.UserUtilService;
 import jakarta.transaction.Transactional;
@@ -23,6 +24,7 @@ public class AttributeService {
 
     private final UserUtilService userUtilService;
     private final AttributeRepository attributeRepository;
+    private final DocumentTypeSchemaCache documentTypeSchemaCache;
 
     public AttributeResponse createAttribute(AttributeRequest attributeRequest, Authentication authentication) {
         userUtilService.checkUserGlobalPermission(
@@ -65,6 +67,7 @@ public class AttributeService {
         attribute.setName(request.name());
         attribute.setType(request.type());
         attribute = attributeRepository.save(attribute);
+        documentTypeSchemaCache.invalidate();
         return new AttributeResponse(attribute.getId(), attribute.getName(), attribute.getType());
     }
 
@@ -74,6 +77,7 @@ public class AttributeService {
 
         if (attributeRepository.existsById(id)) {
             attributeRepository.deleteById(id);
+            documentTypeSchemaCache.invalidate();
         } else {
             throw new AttributeNotFoundException(id);
         }
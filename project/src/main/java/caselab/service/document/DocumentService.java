@@ -10,6 +10,7 @@ import caselab.domain.entity.DocumentType;
 import caselab.domain.entity.UserToDocument;
 import caselab.domain.entity.enums.DocumentPermissionName;
 import caselab.domain.entity.enums.DocumentStatus;
+import caselab.domain.entity.search.DocumentSpecifications;
 import caselab.domain.entity.search.GenericSpecifications;
 import caselab.domain.entity.search.SearchRequest;
 import caselab.domain.repository.DocumentPermissionRepository;
@@ -28,6 +29,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @SuppressWarnings("MultipleStringLiterals")
@@ -73,23 +79,70 @@ public class DocumentService {
         return documentMapper.entityToResponse(document);
     }
 
-    public List<DocumentResponse> getAllDocuments(ApplicationUser user, SearchRequest searchRequest) {
-        List<Document> documents = user
-            .getUsersToDocuments()
-            .stream()
-            .map(UserToDocument::getDocument)
-            .toList();
-        searchRequest.addFilter("id", documents.stream()
-            .map(document -> (Object) document.getId())
-            .toList());
-        return toDocumentResponse(
-            documentRepository.findAll(GenericSpecifications.filterBy(searchRequest.getFilters())).stream());
+    public Page<DocumentResponse> getAllDocuments(
+        ApplicationUser user,
+        SearchRequest searchRequest,
+        Pageable pageable,
+        Sort.Direction direction
+    ) {
+        return getAllDocuments(DocumentSpecifications.accessibleBy(user), searchRequest, pageable, direction);
     }
 
-    public List<DocumentResponse> getAllDocuments(SearchRequest searchRequest) {
-        return toDocumentResponse(
-            documentRepository.findAll(GenericSpecifications.filterBy(searchRequest.getFilters())).stream()
-        );
+    public Page<DocumentResponse> getAllDocuments(
+        SearchRequest searchRequest,
+        Pageable pageable,
+        Sort.Direction direction
+    ) {
+        return getAllDocuments(Specification.where(null), searchRequest, pageable, direction);
+    }
+
+    public List<DocumentResponse> scrollDocuments(
+        ApplicationUser user,
+        SearchRequest searchRequest,
+        Sort.Direction direction,
+        KeysetScrollPosition position,
+        int limit
+    ) {
+        return scrollDocuments(DocumentSpecifications.accessibleBy(user), searchRequest, direction, position, limit);
+    }
+
+    public List<DocumentResponse> scrollDocuments(
+        SearchRequest searchRequest,
+        Sort.Direction direction,
+        KeysetScrollPosition position,
+        int limit
+    ) {
+        return scrollDocuments(Specification.where(null), searchRequest, direction, position, limit);
+    }
+
+    private Page<DocumentResponse> getAllDocuments(
+        Specification<Document> access,
+        SearchRequest searchRequest,
+        Pageable pageable,
+        Sort.Direction direction
+    ) {
+        Specification<Document> specification = access
+            .and(GenericSpecifications.filterBy(searchRequest.getFilters(), searchRequest.getConditions()))
+            .and(DocumentSpecifications.orderByLatestVersionCreatedAt(direction));
+        return documentRepository.findAll(specification, pageable)
+            .map(documentMapper::entityToResponse);
+    }
+
+    // Выборка без count-запроса: следующая страница начинается строго после ключа из курсора
+    private List<DocumentResponse> scrollDocuments(
+        Specification<Document> access,
+        SearchRequest searchRequest,
+        Sort.Direction direction,
+        KeysetScrollPosition position,
+        int limit
+    ) {
+        Specification<Document> specification = access
+            .and(GenericSpecifications.filterBy(searchRequest.getFilters(), searchRequest.getConditions()))
+            .and(DocumentSpecifications.afterLatestVersionCreatedAt(direction, position))
+            .and(DocumentSpecifications.orderByLatestVersionCreatedAt(direction));
+        return documentRepository.findBy(specification, query -> query.limit(limit).all()).stream()
+            .map(documentMapper::entityToResponse)
+            .toList();
     }
 
     private List<DocumentResponse> toDocumentResponse(Stream<Document> documents) {
@@ -154,6 +207,7 @@ public class DocumentService {
         userToDocument.setDocumentPermissions(List.of(permission));
         userToDocumentRepository.save(userToDocument);
         document.getUsersToDocuments().add(userToDocument);
+        documentUtilService.evictPermissions(document);
         return documentMapper.entityToResponse(document);
     }
 
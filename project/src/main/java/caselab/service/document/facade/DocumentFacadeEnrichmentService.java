@@ -0,0 +1,141 @@
+package caselab.service.document.facade;
+
+import caselab.controller.document.facade.payload.DocumentFacadeResponse;
+import caselab.controller.document.payload.DocumentResponse;
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.DocumentVersion;
+import caselab.domain.entity.Signature;
+import caselab.domain.entity.enums.DocumentPermissionName;
+import caselab.domain.repository.DocumentVersionRepository;
+import caselab.domain.repository.SignatureRepository;
+import caselab.exception.document.version.MissingDocumentPermissionException;
+import caselab.exception.entity.not_found.DocumentVersionNotFoundException;
+import caselab.service.document.version.mapper.DocumentVersionMapper;
+import caselab.service.signature.mapper.SignatureMapper;
+import caselab.service.util.DocumentPermissionResolver;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Service;
+
+// Дополняет страницу документов последними версиями, разрешениями и подписями пользователя.
+// Количество запросов к БД не зависит от размера страницы: по одному запросу на каждый вид данных,
+// разрешения загружаются в снимок DocumentPermissionResolver
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class DocumentFacadeEnrichmentService {
+
+    private final DocumentVersionRepository documentVersionRepository;
+    private final SignatureRepository signatureRepository;
+    private final DocumentPermissionResolver permissionResolver;
+
+    private final DocumentVersionMapper documentVersionMapper;
+    private final SignatureMapper signatureMapper;
+
+    public Page<DocumentFacadeResponse> enrich(Page<DocumentResponse> documents, ApplicationUser user) {
+        return new PageImpl<>(enrich(documents.getContent(), user), documents.getPageable(),
+            documents.getTotalElements());
+    }
+
+    public Page<DocumentFacadeResponse> enrich(Page<DocumentResponse> documents) {
+        return new PageImpl<>(enrich(documents.getContent()), documents.getPageable(), documents.getTotalElements());
+    }
+
+    public DocumentFacadeResponse enrich(DocumentResponse document, ApplicationUser user) {
+        return enrich(List.of(document), user).getFirst();
+    }
+
+    public List<DocumentFacadeResponse> enrich(List<DocumentResponse> documents, ApplicationUser user) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+
+        var latestVersions = findLatestVersions(documents);
+
+        permissionResolver.preload(user, documents.stream().map(DocumentResponse::id).toList());
+
+        Map<Long, Signature> signatures = signatureRepository
+            .findAllByApplicationUserIdAndDocumentVersionIdIn(user.getId(), latestVersions.keySet())
+            .stream()
+            .collect(Collectors.toMap(
+                it -> it.getDocumentVersion().getId(),
+                Function.identity(),
+                (first, second) -> first
+            ));
+
+        return documents.stream()
+            .map(document -> toFacadeResponse(
+                document,
+                getLatestVersion(document, latestVersions),
+                user,
+                signatures
+            ))
+            .toList();
+    }
+
+    public List<DocumentFacadeResponse> enrich(List<DocumentResponse> documents) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+
+        var latestVersions = findLatestVersions(documents);
+
+        return documents.stream()
+            .map(document -> new DocumentFacadeResponse(
+                document,
+                documentVersionMapper.map(getLatestVersion(document, latestVersions)),
+                null
+            ))
+            .toList();
+    }
+
+    private DocumentFacadeResponse toFacadeResponse(
+        DocumentResponse document,
+        DocumentVersion latestVersion,
+        ApplicationUser user,
+        Map<Long, Signature> signatures
+    ) {
+        if (!permissionResolver.hasPermission(user, document.id(), DocumentPermissionName::any)) {
+            throw new MissingDocumentPermissionException("Any");
+        }
+
+        var latestVersionResponse = documentVersionMapper.map(latestVersion);
+        if (!permissionResolver.hasPermission(user, document.id(), DocumentPermissionName::canRead)) {
+            latestVersionResponse.setAttributes(null);
+            latestVersionResponse.setContentName(null);
+        }
+
+        var signature = signatures.get(latestVersion.getId());
+        return new DocumentFacadeResponse(
+            document,
+            latestVersionResponse,
+            signature == null ? null : signatureMapper.entityToResponse(signature)
+        );
+    }
+
+    private Map<Long, DocumentVersion> findLatestVersions(List<DocumentResponse> documents) {
+        var latestVersionIds = documents.stream()
+            .map(DocumentResponse::latestVersionId)
+            .filter(Objects::nonNull)
+            .toList();
+
+        return documentVersionRepository.findAllByIdIn(latestVersionIds).stream()
+            .collect(Collectors.toMap(DocumentVersion::getId, Function.identity()));
+    }
+
+    private DocumentVersion getLatestVersion(DocumentResponse document, Map<Long, DocumentVersion> latestVersions) {
+        var latestVersionId = document.latestVersionId();
+        var latestVersion = latestVersions.get(latestVersionId);
+        if (latestVersion == null) {
+            throw new DocumentVersionNotFoundException(latestVersionId);
+        }
+        return latestVersion;
+    }
+}
@@ -5,30 +5,30 @@ import caselab.controller.document.facade.payload.DocumentFacadeResponse;
 import caselab.controller.document.facade.payload.PatchDocumentRequest;
 import caselab.controller.document.facade.payload.UpdateDocumentRequest;
 import caselab.controller.document.payload.DocumentRequest;
-import caselab.controller.document.payload.DocumentResponse;
 import caselab.controller.document.version.payload.CreateDocumentVersionRequest;
-import caselab.controller.signature.payload.SignatureResponse;
+import caselab.controller.payload.CursorPageResponse;
 import caselab.domain.entity.ApplicationUser;
 import caselab.domain.entity.GlobalPermission;
 import caselab.domain.entity.enums.GlobalPermissionName;
+import caselab.domain.entity.search.DocumentSpecifications;
 import caselab.domain.entity.search.SearchRequest;
 import caselab.domain.repository.ApplicationUserRepository;
-import caselab.domain.repository.DocumentVersionRepository;
-import caselab.domain.repository.SignatureRepository;
 import caselab.service.document.DocumentService;
 import caselab.service.document.version.DocumentVersionService;
-import caselab.service.signature.mapper.SignatureMapper;
+import caselab.service.util.CursorUtil;
 import caselab.service.util.PageUtil;
 import caselab.service.util.UserUtilService;
 import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -41,56 +41,15 @@ public class DocumentFacadeService {
 
     private final DocumentService documentService;
     private final DocumentVersionService documentVersionService;
+    private final DocumentFacadeEnrichmentService enrichmentService;
     private final UserUtilService userUtilService;
 
-    private final DocumentVersionRepository documentVersionRepository;
-    private final SignatureRepository signatureRepository;
     private final ApplicationUserRepository userRepository;
 
-    private final SignatureMapper signatureMapper;
-
-    private DocumentFacadeResponse enrichResponse(
-        DocumentResponse documentResponse,
-        ApplicationUser user
-    ) {
-        var latestVersionResponse = documentVersionService.getDocumentVersionById(
-            documentResponse.documentVersionIds().getLast(), user
-        );
-
-        var signature = findSignatureByUserAndDocumentVersion(
-            user.getId(),
-            latestVersionResponse.getId()
-        );
-
-        return new DocumentFacadeResponse(documentResponse, latestVersionResponse, signature.orElse(null));
-    }
-
-    private DocumentFacadeResponse enrichResponse(
-        DocumentResponse documentResponse
-    ) {
-        var latestVersionResponse = documentVersionService.getDocumentVersionById(
-            documentResponse.documentVersionIds().getLast()
-        );
-
-        return new DocumentFacadeResponse(documentResponse, latestVersionResponse, null);
-    }
-
-    private Optional<SignatureResponse> findSignatureByUserAndDocumentVersion(Long userId, Long documentVersionId) {
-        var user = userRepository.findById(userId);
-        var documentVersion = documentVersionRepository.findById(documentVersionId);
-
-        return user.flatMap(applicationUser -> documentVersion
-            .flatMap(version -> signatureRepository.findByApplicationUserAndDocumentVersion(
-                    applicationUser,
-                    version
-                )
-                .map(signatureMapper::entityToResponse)));
-    }
-
     public DocumentFacadeResponse getDocumentById(Long id, Authentication auth) {
         var user = userUtilService.findUserByAuthentication(auth);
         var documentResponse = documentService.getDocumentById(id, user);
-        return enrichResponse(documentResponse, user);
+        return enrichmentService.enrich(documentResponse, user);
     }
 
     public DocumentFacadeResponse createDocument(CreateDocumentRequest body, MultipartFile file, Authentication auth) {
@@ -106,8 +65,11 @@ public class DocumentFacadeService {
             .attributes(body.getAttributes())
             .build();
         var latestVersion = documentVersionService.createDocumentVersion(documentVersionRequest, file, user);
-        documentResponse.documentVersionIds().add(latestVersion.getId());
-        return new DocumentFacadeResponse(documentResponse, latestVersion, null);
+        return new DocumentFacadeResponse(
+            documentResponse.withLatestVersion(latestVersion.getId()),
+            latestVersion,
+            null
+        );
 
     }
 
@@ -120,14 +82,9 @@ public class DocumentFacadeService {
     ) {
         var user = userUtilService.findUserByAuthentication(auth);
 
-        Optional<GlobalPermissionName> adminCheck = user.getGlobalPermissions().stream()
-            .map(GlobalPermission::getName)
-            .filter(it -> it.equals(GlobalPermissionName.ADMIN))
-            .findFirst();
-
         PageRequest pageable = PageUtil.toPageable(pageNum, pageSize);
 
-        if (adminCheck.isPresent()) {
+        if (isAdmin(user)) {
             return getAllAdminDocuments(pageable, sortStrategy, user, searchRequest);
         }
 
@@ -144,27 +101,62 @@ public class DocumentFacadeService {
             pageNum,
             pageSize,
             sortStrategy,
-            new SearchRequest(null),
-            // Передаем фильтры как null, для совместимости с прошлым получением всех документов
+            new SearchRequest(),
             auth
         );
     }
 
+    // Выдача по курсору в том же порядке, что и getAllDocuments, но без count-запроса и OFFSET
+    public CursorPageResponse<DocumentFacadeResponse> scrollAllDocuments(
+        String cursor,
+        Integer pageSize,
+        String sortStrategy,
+        Authentication auth
+    ) {
+        var user = userUtilService.findUserByAuthentication(auth);
+        var direction = toLatestVersionDirection(sortStrategy);
+        var position = CursorUtil.toPosition(cursor, keys -> Map.of(
+            DocumentSpecifications.LATEST_VERSION_CREATED_AT, OffsetDateTime.parse(keys.get(0)),
+            DocumentSpecifications.ID, Long.valueOf(keys.get(1))
+        ));
+        int limit = CursorUtil.toLimit(pageSize);
+        var searchRequest = new SearchRequest();
+
+        // Запрашивается на один документ больше, чтобы узнать о наличии следующей страницы
+        List<DocumentFacadeResponse> documents = isAdmin(user)
+            ? enrichmentService.enrich(documentService.scrollDocuments(searchRequest, direction, position, limit + 1))
+            : enrichmentService.enrich(
+                documentService.scrollDocuments(user, searchRequest, direction, position, limit + 1),
+                user
+            );
+
+        boolean hasNext = documents.size() > limit;
+        var content = hasNext ? documents.subList(0, limit) : documents;
+
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.getLast();
+            nextCursor = CursorUtil.encode(last.getLatestVersion().getCreatedAt(), last.getDocumentResponse().id());
+        }
+
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
+    }
+
+    private boolean isAdmin(ApplicationUser user) {
+        return user.getGlobalPermissions().stream()
+            .map(GlobalPermission::getName)
+            .anyMatch(GlobalPermissionName.ADMIN::equals);
+    }
+
     private Page<DocumentFacadeResponse> getAllAdminDocuments(
         Pageable pageable,
         String sortStrategy,
         ApplicationUser user,
         SearchRequest searchRequest
     ) {
-
-        List<DocumentResponse> allDocuments = documentService.getAllDocuments(searchRequest);
-
-        List<DocumentFacadeResponse> responseList = allDocuments.stream()
-            .map(this::enrichResponse)
-            .sorted(Comparator.comparing(it -> it.getLatestVersion().getCreatedAt()))
-            .toList();
-
-        return toPage(responseList, pageable, sortStrategy);
+        return enrichmentService.enrich(
+            documentService.getAllDocuments(searchRequest, pageable, toLatestVersionDirection(sortStrategy))
+        );
     }
 
     private Page<DocumentFacadeResponse> getAllUserDocuments(
@@ -173,32 +165,19 @@ public class DocumentFacadeService {
         ApplicationUser user,
         SearchRequest searchRequest
     ) {
-
-        List<DocumentFacadeResponse> responseList = documentService.getAllDocuments(user, searchRequest).stream()
-            .map(doc -> enrichResponse(doc, user))
-            .sorted(Comparator.comparing(it -> it.getLatestVersion().getCreatedAt()))
-            .toList();
-
-        return toPage(responseList, pageable, sortStrategy);
+        return enrichmentService.enrich(
+            documentService.getAllDocuments(user, searchRequest, pageable, toLatestVersionDirection(sortStrategy)),
+            user
+        );
     }
 
-    private Page<DocumentFacadeResponse> toPage(
-        List<DocumentFacadeResponse> list,
-        Pageable pageable,
-        String sortStrategy
-    ) {
-        List<DocumentFacadeResponse> validList = switch (sortStrategy.toLowerCase()) {
-            case "desc" -> list;
-            case "asc" -> list.reversed();
+    // Сохранен прежний порядок выдачи: при "desc" документы идут от более старой последней версии к более новой
+    private Sort.Direction toLatestVersionDirection(String sortStrategy) {
+        return switch (sortStrategy.toLowerCase()) {
+            case "desc" -> Sort.Direction.ASC;
+            case "asc" -> Sort.Direction.DESC;
             default -> throw new IllegalArgumentException("Parameter sortStrategy: " + sortStrategy + " is not valid");
         };
-
-        List<DocumentFacadeResponse> pageList = validList.stream()
-            .skip(pageable.getOffset())
-            .limit(pageable.getPageSize())
-            .toList();
-
-        return new PageImpl<>(pageList, pageable, list.size());
     }
 
     public DocumentFacadeResponse updateDocument(
@@ -216,9 +195,8 @@ public class DocumentFacadeService {
             .build();
 
         var latestVersion = documentVersionService.createDocumentVersion(documentVersionRequest, file, user);
-        documentResponse.documentVersionIds().add(latestVersion.getId());
 
-        return enrichResponse(documentResponse, user);
+        return enrichmentService.enrich(documentResponse.withLatestVersion(latestVersion.getId()), user);
     }
 
     public DocumentFacadeResponse partiallyUpdateDocument(
@@ -236,16 +214,15 @@ public class DocumentFacadeService {
             .build();
 
         var latestVersion = documentVersionService.createDocumentVersion(documentVersionRequest, file, user);
-        documentResponse.documentVersionIds().add(latestVersion.getId());
 
-        return enrichResponse(documentResponse, user);
+        return enrichmentService.enrich(documentResponse.withLatestVersion(latestVersion.getId()), user);
     }
 
     public DocumentFacadeResponse grantPermission(Long id, String email, Authentication auth) {
         var user = userUtilService.findUserByAuthentication(auth);
         var grantTo = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
         var documentResponse = documentService.grantReadDocumentPermission(id, grantTo, user);
-        return enrichResponse(documentResponse, user);
+        return enrichmentService.enrich(documentResponse, user);
     }
 
     public void documentToArchive(Long id, Authentication auth) {
@@ -254,15 +231,10 @@ public class DocumentFacadeService {
     }
 
     public Page<DocumentFacadeResponse> getAllDocumentsByIds(List<Long> ids, Pageable pageable) {
-        var foundDocuments = documentService.getAllDocumentsByIds(ids);
-        var documentResponses = foundDocuments.stream()
-            .map(this::enrichResponse)
+        var documentResponses = enrichmentService.enrich(documentService.getAllDocumentsByIds(ids)).stream()
             .sorted(Comparator.comparing(it -> it.getLatestVersion().getCreatedAt()))
             .toList();
 
-        List<DocumentFacadeResponse> pageList = documentResponses.stream()
-            .toList();
-
-        return new PageImpl<>(pageList, pageable, documentResponses.size());
+        return new PageImpl<>(documentResponses, pageable, documentResponses.size());
     }
 }
@@ -26,6 +26,7 @@ public interface DocumentMapper {
     @Mapping(target = "documentVersionIds",
              source = "documentVersions",
              qualifiedByName = "documentVersionsToDocumentVersionIds")
+    @Mapping(target = "latestVersionId", source = "latestVersion.id")
     DocumentResponse entityToResponse(Document document);
 
     @Named("documentVersionsToDocumentVersionIds")
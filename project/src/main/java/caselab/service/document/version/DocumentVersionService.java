@@ -3,28 +3,30 @@ package caselab.service.document.version;
 import caselab.controller.document.version.payload.AttributeValueRequest;
 import caselab.controller.document.version.payload.CreateDocumentVersionRequest;
 import caselab.controller.document.version.payload.DocumentVersionResponse;
+import caselab.controller.payload.CursorPageResponse;
 import caselab.domain.entity.ApplicationUser;
 import caselab.domain.entity.Attribute;
 import caselab.domain.entity.Document;
-import caselab.domain.entity.DocumentPermission;
 import caselab.domain.entity.DocumentVersion;
-import caselab.domain.entity.UserToDocument;
 import caselab.domain.entity.attribute.value.AttributeValue;
 import caselab.domain.entity.document.type.to.attribute.DocumentTypeToAttribute;
 import caselab.domain.entity.enums.DocumentPermissionName;
 import caselab.domain.entity.enums.GlobalPermissionName;
+import caselab.domain.entity.search.DocumentVersionSpecifications;
 import caselab.domain.repository.AttributeRepository;
-import caselab.domain.repository.AttributeValueRepository;
 import caselab.domain.repository.DocumentRepository;
 import caselab.domain.repository.DocumentVersionRepository;
 import caselab.domain.repository.UserToDocumentRepository;
 import caselab.domain.storage.FileStorage;
+import caselab.domain.storage.StoredObject;
 import caselab.exception.document.version.MissingAttributesException;
-import caselab.exception.document.version.MissingDocumentPermissionException;
 import caselab.exception.entity.not_found.AttributeNotFoundException;
 import caselab.exception.entity.not_found.DocumentNotFoundException;
 import caselab.exception.entity.not_found.DocumentVersionNotFoundException;
 import caselab.service.document.version.mapper.DocumentVersionMapper;
+import caselab.service.types.DocumentTypeSchema;
+import caselab.service.types.DocumentTypeSchemaCache;
+import caselab.service.util.CursorUtil;
 import caselab.service.util.DocumentUtilService;
 import caselab.service.util.PageUtil;
 import caselab.service.util.UserUtilService;
@@ -32,14 +34,16 @@ import jakarta.transaction.Transactional;
 import java.io.InputStream;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -49,6 +53,8 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class DocumentVersionService {
 
+    private static final String CREATED_AT = "createdAt";
+
     private final UserUtilService userUtilService;
     private final DocumentUtilService documentUtilService;
 
@@ -56,10 +62,10 @@ public class DocumentVersionService {
     private final DocumentRepository documentRepository;
     private final UserToDocumentRepository userToDocumentRepository;
     private final AttributeRepository attributeRepository;
-    private final AttributeValueRepository attributeValueRepository;
 
     private final DocumentVersionMapper documentVersionMapper;
     private final FileStorage documentVersionStorage;
+    private final DocumentTypeSchemaCache documentTypeSchemaCache;
 
     private DocumentVersionResponse hideInaccessibleFields(
         DocumentVersionResponse response,
@@ -74,23 +80,6 @@ public class DocumentVersionService {
         return response;
     }
 
-    private boolean checkLacksPermission(
-        ApplicationUser user,
-        Document document,
-        Predicate<DocumentPermissionName> permission
-    ) {
-        Optional<UserToDocument> userToDocument = userToDocumentRepository.findByApplicationUserIdAndDocumentId(
-            user.getId(),
-            document.getId()
-        );
-        return userToDocument
-            .filter(it -> it.getDocumentPermissions()
-                .stream()
-                .map(DocumentPermission::getName)
-                .anyMatch(permission))
-            .isPresent();
-    }
-
     // На данный момент (на данной версии приложения) разрешение READ имеют лишь те пользователи,
     // которым этот документ был отослан на подпись.
     // Эти пользователи могут видеть документ и все его версии до тех пор, пока не будет создан новый черновик -
@@ -100,13 +89,6 @@ public class DocumentVersionService {
         document
             .getUsersToDocuments()
             .stream()
-            .map(UserToDocument::getApplicationUser)
-            .filter(
-                user -> checkLacksPermission(user, document, x -> x == DocumentPermissionName.READ)
-            )
-            .map(user -> userToDocumentRepository.findByApplicationUserIdAndDocumentId(user.getId(), document.getId()))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
             .filter(
                 utd -> utd.getDocumentPermissions().stream().anyMatch(
                     per -> per.getName() == DocumentPermissionName.READ
@@ -115,6 +97,7 @@ public class DocumentVersionService {
             .forEach(
                 userToDocumentRepository::delete
             );
+        documentUtilService.evictPermissions(document);
     }
 
     private void checkMandatoryAttributesPresent(CreateDocumentVersionRequest body, Document document) {
@@ -122,13 +105,16 @@ public class DocumentVersionService {
             .map(AttributeValueRequest::attributeId)
             .collect(Collectors.toSet());
 
-        Set<Long> mandatoryAttributesIds = document.getDocumentType()
-            .getDocumentTypesToAttributes()
-            .stream()
-            .filter(dtta -> !dtta.getIsOptional())
-            .map(DocumentTypeToAttribute::getAttribute)
-            .map(Attribute::getId)
-            .collect(Collectors.toSet());
+        // Обязательные атрибуты берутся из снимка типов, тип, которого еще нет в снимке, читается из сущности
+        Set<Long> mandatoryAttributesIds = documentTypeSchemaCache.find(document.getDocumentType().getId())
+            .map(DocumentTypeSchema::mandatoryAttributeIds)
+            .orElseGet(() -> document.getDocumentType()
+                .getDocumentTypesToAttributes()
+                .stream()
+                .filter(dtta -> !dtta.getIsOptional())
+                .map(DocumentTypeToAttribute::getAttribute)
+                .map(Attribute::getId)
+                .collect(Collectors.toSet()));
 
         if (!presentAttributesIds.containsAll(mandatoryAttributesIds)) {
             throw new MissingAttributesException();
@@ -162,35 +148,25 @@ public class DocumentVersionService {
 
         setDocumentContentName(documentVersion, file, document);
 
-        List<AttributeValue> attributeValues = createAttributeValues(body, document, documentVersion);
-
-        var saved = documentVersionRepository.save(documentVersion);
-        attributeValueRepository.saveAll(attributeValues);
-        saved.setAttributeValues(attributeValues);
-
-        DocumentVersionResponse versionResponse;
+        // Значения атрибутов сохраняются каскадно вместе с версией одной пачкой вставок
+        documentVersion.setAttributeValues(createAttributeValues(body, document, documentVersion));
 
-        try {
-            versionResponse = documentVersionMapper.map(saved);
-        } catch (Exception e) {
-            documentVersionStorage.delete(documentVersion.getContentName());
-            throw new RuntimeException(e.getMessage(), e.getCause());
-        }
+        var versionResponse = documentVersionMapper.map(documentVersionRepository.save(documentVersion));
 
         clearReaders(document);
         return versionResponse;
     }
 
     private String generateVersionName(Document document) {
-        return String.format("%s v%d", document.getName(), document.getDocumentVersions().size() + 1);
+        return String.format("%s v%d", document.getName(), document.getVersionCount() + 1);
     }
 
     private void setDocumentContentName(DocumentVersion documentVersion, MultipartFile file, Document document) {
         if (Objects.nonNull(file)) {
             String contentName = file.isEmpty() ? null : documentVersionStorage.put(file);
             documentVersion.setContentName(contentName);
-        } else if (!document.getDocumentVersions().isEmpty()) {
-            var newestDocVersion = document.getDocumentVersions().getFirst();
+        } else if (document.getLatestVersion() != null) {
+            var newestDocVersion = document.getLatestVersion();
             documentVersion.setContentName(newestDocVersion.getContentName());
         }
     }
@@ -201,12 +177,13 @@ public class DocumentVersionService {
         DocumentVersion version
     ) {
         if (Objects.nonNull(body.attributes())) {
+            var attributes = findAttributesByIds(body.attributes());
             return body.attributes()
                 .stream()
-                .map(pair -> createAttributeValueFromPair(pair, version))
+                .map(pair -> createAttributeValueFromPair(pair, attributes.get(pair.attributeId()), version))
                 .toList();
         } else {
-            DocumentVersion newestVersion = document.getDocumentVersions().getFirst();
+            DocumentVersion newestVersion = document.getLatestVersion();
             return newestVersion.getAttributeValues()
                 .stream()
                 .map(pair -> createAttributeValueFromExisting(pair, version))
@@ -214,14 +191,30 @@ public class DocumentVersionService {
         }
     }
 
-    private AttributeValue createAttributeValueFromPair(AttributeValueRequest pair, DocumentVersion documentVersion) {
+    // Все атрибуты запроса загружаются одним запросом
+    private Map<Long, Attribute> findAttributesByIds(List<AttributeValueRequest> pairs) {
+        var ids = pairs.stream()
+            .map(AttributeValueRequest::attributeId)
+            .collect(Collectors.toSet());
+        var attributes = attributeRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Attribute::getId, Function.identity()));
+        ids.stream()
+            .filter(id -> !attributes.containsKey(id))
+            .findFirst()
+            .ifPresent(id -> {
+                throw new AttributeNotFoundException(id);
+            });
+        return attributes;
+    }
+
+    private AttributeValue createAttributeValueFromPair(
+        AttributeValueRequest pair,
+        Attribute attribute,
+        DocumentVersion documentVersion
+    ) {
         var value = new AttributeValue();
         value.setAppValue(pair.value());
-        value.setAttribute(
-            attributeRepository
-                .findById(pair.attributeId())
-                .orElseThrow(() -> new AttributeNotFoundException(pair.attributeId()))
-        );
+        value.setAttribute(attribute);
         value.setDocumentVersion(documentVersion);
         return value;
     }
@@ -243,9 +236,9 @@ public class DocumentVersionService {
         DocumentVersion documentVersion = documentVersionRepository.findById(id)
             .orElseThrow(() -> new DocumentVersionNotFoundException(id));
 
-        userToDocumentRepository.findByApplicationUserIdAndDocumentId(
-            user.getId(), documentVersion.getDocument().getId()
-        ).orElseThrow(() -> new MissingDocumentPermissionException("Any"));
+        documentUtilService.assertHasPermission(
+            user, documentVersion.getDocument(), DocumentPermissionName::any, "Any"
+        );
 
         return hideInaccessibleFields(
             documentVersionMapper.map(documentVersion),
@@ -277,7 +270,7 @@ public class DocumentVersionService {
         }
 
         Page<DocumentVersion> versions = documentVersionRepository.findByDocumentId(
-            PageUtil.toPageable(pageNum, pageSize, Sort.by("createdAt"), sortStrategy),
+            PageUtil.toPageable(pageNum, pageSize, Sort.by(CREATED_AT), sortStrategy),
             id
         );
 
@@ -289,7 +282,51 @@ public class DocumentVersionService {
             ));
     }
 
-    public InputStream getDocumentVersionContent(Long id, Authentication auth) {
+    // Постраничная выдача по курсору (createdAt, id): стоимость запроса не зависит от глубины, count не выполняется
+    public CursorPageResponse<DocumentVersionResponse> scrollDocumentVersionsByDocumentId(
+        Long id,
+        String cursor,
+        Integer pageSize,
+        String sortStrategy,
+        Authentication auth
+    ) {
+        var position = CursorUtil.toPosition(cursor, keys -> Map.of(
+            CREATED_AT, OffsetDateTime.parse(keys.get(0)),
+            "id", Long.valueOf(keys.get(1))
+        ));
+        int limit = CursorUtil.toLimit(pageSize);
+
+        ApplicationUser user = userUtilService.findUserByAuthentication(auth);
+
+        var document = findDocumentById(id);
+
+        if (documentUtilService.checkLacksPermission(user, document, DocumentPermissionName::isCreator)) {
+            userUtilService.checkUserGlobalPermission(user, GlobalPermissionName.ADMIN);
+        }
+
+        Window<DocumentVersion> versions = documentVersionRepository.findBy(
+            DocumentVersionSpecifications.byDocumentId(id),
+            query -> query
+                .sortBy(Sort.by(PageUtil.toDirection(sortStrategy), CREATED_AT, "id"))
+                .limit(limit)
+                .scroll(position)
+        );
+
+        var content = versions.getContent().stream()
+            .map(docV -> hideInaccessibleFields(documentVersionMapper.map(docV), user, document))
+            .toList();
+
+        String nextCursor = null;
+        if (versions.hasNext()) {
+            var last = versions.getContent().getLast();
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new CursorPageResponse<>(content, nextCursor, versions.hasNext());
+    }
+
+    // Проверяет доступ к файлу версии и возвращает его метаданные из хранилища одним запросом
+    public StoredObject getDocumentVersionContentInfo(Long id, Authentication auth) {
         ApplicationUser user = userUtilService.findUserByAuthentication(auth);
 
         DocumentVersion documentVersion = documentVersionRepository.findById(id)
@@ -297,11 +334,7 @@ public class DocumentVersionService {
 
         Document currentDocument = documentVersion.getDocument();
 
-        Long lastDocumentVersionId = currentDocument.getDocumentVersions().stream()
-            .map(DocumentVersion::getId)
-            .sorted()
-            .toList()
-            .getLast();
+        Long lastDocumentVersionId = currentDocument.getLatestVersion().getId();
 
         boolean checked;
 
@@ -321,7 +354,12 @@ public class DocumentVersionService {
             userUtilService.checkUserGlobalPermission(user, GlobalPermissionName.ADMIN);
         }
 
-        return documentVersionStorage.get(documentVersion.getContentName());
+        return documentVersionStorage.stat(documentVersion.getContentName());
+    }
+
+    // Вызывается только для объекта, полученного из getDocumentVersionContentInfo
+    public InputStream getDocumentVersionContent(StoredObject content, long offset, long length) {
+        return documentVersionStorage.get(content, offset, length);
     }
 
     private Document findDocumentById(Long id) {
@@ -0,0 +1,229 @@
+package caselab.service.notification.email;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.EmailOutboxMessage;
+import caselab.domain.entity.enums.EmailOutboxStatus;
+import caselab.domain.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.io.File;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Отправляет письма из email_outbox. Пачка писем захватывается в короткой транзакции
+// (SKIP LOCKED + сдвиг next_attempt_at на время аренды), затем делится между app.mail-outbox.sessions
+// SMTP-сессиями: каждая сессия на своем виртуальном потоке отправляет свою часть через одно соединение.
+// Неудачные письма повторяются с экспоненциальной задержкой по app.retry, после max-attempts помечаются FAILED
+@Slf4j
+@Service
+@EnableScheduling
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationConfig.MailOutbox properties;
+    private final ApplicationConfig.Retry retry;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    // Внутри транзакции отправка запрашивается после коммита, один раз на транзакцию
+    public void requestDispatch() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            startDispatch();
+        } else if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EmailOutboxDispatcher.this);
+                    if (status == STATUS_COMMITTED) {
+                        startDispatch();
+                    }
+                }
+            });
+        }
+    }
+
+    // Подхватывает письма, которые ждут повтора или были захвачены упавшим узлом
+    @Scheduled(fixedDelayString = "#{@mailOutbox.pollInterval}")
+    public void poll() {
+        startDispatch();
+    }
+
+    private void startDispatch() {
+        requested.set(true);
+        if (dispatching.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("email-outbox").start(this::dispatchLoop);
+        }
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (requested.getAndSet(false)) {
+                dispatchAll();
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch failed", e);
+        } finally {
+            dispatching.set(false);
+        }
+        if (requested.get()) {
+            startDispatch();
+        }
+    }
+
+    private void dispatchAll() {
+        int batchSize = Math.max(properties.batchSize(), 1);
+        List<EmailOutboxMessage> claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> claim(batchSize));
+            if (!claimed.isEmpty()) {
+                var results = send(claimed);
+                transactionTemplate.executeWithoutResult(status -> complete(results));
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<EmailOutboxMessage> claim(int batchSize) {
+        var now = OffsetDateTime.now();
+        var messages = emailOutboxRepository.findReadyForUpdate(now, batchSize);
+        messages.forEach(message -> message.setNextAttemptAt(now.plus(properties.lease())));
+        return messages;
+    }
+
+    private Map<Long, String> send(List<EmailOutboxMessage> messages) {
+        int sessions = Math.min(Math.max(properties.sessions(), 1), messages.size());
+        int chunkSize = (messages.size() + sessions - 1) / sessions;
+
+        Map<Long, String> results = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<Future<Map<Long, String>>, List<EmailOutboxMessage>> chunks = new LinkedHashMap<>();
+            for (int from = 0; from < messages.size(); from += chunkSize) {
+                var chunk = messages.subList(from, Math.min(from + chunkSize, messages.size()));
+                chunks.put(executor.submit(() -> sendSession(chunk)), chunk);
+            }
+            chunks.forEach((future, chunk) -> results.putAll(sessionResults(future, chunk)));
+        }
+        return results;
+    }
+
+    // Письма упавшей сессии считаются неотправленными, результаты остальных сессий сохраняются
+    private Map<Long, String> sessionResults(Future<Map<Long, String>> future, List<EmailOutboxMessage> chunk) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (ExecutionException e) {
+            log.error("Email session failed", e.getCause());
+            Map<Long, String> results = new LinkedHashMap<>();
+            chunk.forEach(message -> results.put(message.getId(), String.valueOf(e.getCause().getMessage())));
+            return results;
+        }
+    }
+
+    // Возвращает текст ошибки для каждого письма, null - письмо отправлено
+    private Map<Long, String> sendSession(List<EmailOutboxMessage> messages) {
+        Map<Long, String> results = new LinkedHashMap<>();
+        Map<MimeMessage, Long> mimeMessages = new LinkedHashMap<>();
+        for (var message : messages) {
+            try {
+                mimeMessages.put(createMimeMessage(message), message.getId());
+            } catch (MessagingException e) {
+                results.put(message.getId(), e.getMessage());
+            }
+        }
+        mimeMessages.values().forEach(id -> results.put(id, null));
+        if (mimeMessages.isEmpty()) {
+            return results;
+        }
+
+        try {
+            javaMailSender.send(mimeMessages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((mimeMessage, exception) ->
+                results.put(mimeMessages.get(mimeMessage), String.valueOf(exception.getMessage())));
+        } catch (MailException e) {
+            mimeMessages.values().forEach(id -> results.put(id, String.valueOf(e.getMessage())));
+        }
+        return results;
+    }
+
+    private void complete(Map<Long, String> results) {
+        var messages = emailOutboxRepository.findAllById(results.keySet()).stream()
+            .collect(Collectors.toMap(EmailOutboxMessage::getId, Function.identity()));
+
+        List<EmailOutboxMessage> sent = new ArrayList<>();
+        results.forEach((id, error) -> {
+            var message = messages.get(id);
+            if (message == null) {
+                return;
+            }
+            if (error == null) {
+                sent.add(message);
+            } else {
+                registerFailure(message, error);
+            }
+        });
+
+        emailOutboxRepository.deleteAllInBatch(sent);
+        log.info("Emails sent: {}, failed: {}", sent.size(), results.size() - sent.size());
+    }
+
+    private void registerFailure(EmailOutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error);
+        if (attempts >= retry.maxAttempts()) {
+            message.setStatus(EmailOutboxStatus.FAILED);
+            log.error("Email sent error to {}: {}", message.getRecipient(), error);
+            return;
+        }
+
+        long delay = retry.delay() * (long) Math.pow(retry.multiplier(), attempts - 1);
+        message.setNextAttemptAt(OffsetDateTime.now().plus(Duration.ofMillis(delay)));
+    }
+
+    private MimeMessage createMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(message.getSender());
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getText(), message.getText());
+
+        if (message.getAttachments() != null) {
+            for (String path : message.getAttachments()) {
+                File attachment = new File(path);
+                helper.addAttachment(attachment.getName(), attachment);
+            }
+        }
+        return mimeMessage;
+    }
+}
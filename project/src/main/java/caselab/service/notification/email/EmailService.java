@@ -1,53 +1,47 @@
 package caselab.service.notification.email;
 
-import caselab.exception.NotificationException;
+import caselab.domain.entity.EmailOutboxMessage;
+import caselab.domain.entity.enums.EmailOutboxStatus;
+import caselab.domain.repository.EmailOutboxRepository;
 import caselab.service.notification.NotificationService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import java.io.File;
+import java.time.OffsetDateTime;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+// Письмо записывается в email_outbox в текущей транзакции и отправляется после ее коммита
+// EmailOutboxDispatcher. Если транзакция откатится, письмо не уйдет
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService implements NotificationService<EmailNotificationDetails> {
 
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
 
     @Override
     public void sendNotification(EmailNotificationDetails emailDetails) {
-        MimeMessage message = javaMailSender.createMimeMessage();
-        try {
-            createMimeMessageHelper(message, emailDetails);
-        } catch (MessagingException e) {
-            throw new NotificationException();
-        }
+        var now = OffsetDateTime.now();
+        var message = EmailOutboxMessage.builder()
+            .sender(emailDetails.sender())
+            .recipient(emailDetails.recipient())
+            .subject(emailDetails.subject())
+            .text(emailDetails.text())
+            .attachments(toPaths(emailDetails.attachments()))
+            .status(EmailOutboxStatus.PENDING)
+            .attempts(0)
+            .nextAttemptAt(now)
+            .createdAt(now)
+            .build();
 
-        try {
-            javaMailSender.send(message);
-            log.info("Email sent successfully to {}", emailDetails.recipient());
-        } catch (MailException e) {
-            log.error("Email sent error to {}", emailDetails.recipient(), e);
-        }
+        emailOutboxRepository.save(message);
+        log.debug("Email to {} queued for sending", emailDetails.recipient());
+        emailOutboxDispatcher.requestDispatch();
     }
 
-    private void createMimeMessageHelper(MimeMessage message, EmailNotificationDetails emailDetails)
-        throws MessagingException {
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        helper.setFrom(emailDetails.sender());
-        helper.setTo(emailDetails.recipient());
-        helper.setSubject(emailDetails.subject());
-        helper.setText(emailDetails.text(), emailDetails.text());
-
-        if (emailDetails.attachments() != null) {
-            for (File attachment : emailDetails.attachments()) {
-                helper.addAttachment(attachment.getName(), attachment);
-            }
-        }
+    private List<String> toPaths(List<File> attachments) {
+        return attachments == null ? List.of() : attachments.stream().map(File::getPath).toList();
     }
 }
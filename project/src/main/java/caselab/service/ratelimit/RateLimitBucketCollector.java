@@ -0,0 +1,54 @@
+package caselab.service.ratelimit;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Удаляет полностью восстановленные корзины: отсутствующая корзина создается заново с полным запасом.
+// Строки выбираются с SKIP LOCKED, поэтому очистка на нескольких узлах не конфликтует с запросами и друг с другом
+@Slf4j
+@Service
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "POSTGRES")
+public class RateLimitBucketCollector {
+
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationConfig.RateLimit properties;
+    private final Counter deleted;
+
+    public RateLimitBucketCollector(
+        RateLimitBucketRepository rateLimitBucketRepository,
+        TransactionTemplate transactionTemplate,
+        ApplicationConfig.RateLimit rateLimit,
+        MeterRegistry meterRegistry
+    ) {
+        this.rateLimitBucketRepository = rateLimitBucketRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = rateLimit;
+        this.deleted = Counter.builder("rate_limit.buckets.deleted")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@rateLimit.purgeInterval}")
+    public void collect() {
+        int total = 0;
+        int collected;
+        do {
+            collected = transactionTemplate.execute(status ->
+                rateLimitBucketRepository.deleteExpired(OffsetDateTime.now(), properties.purgeBatchSize()));
+            total += collected;
+        } while (collected == properties.purgeBatchSize());
+
+        deleted.increment(total);
+        log.debug("Removed " + total + " expired rate limit buckets");
+    }
+}
@@ -0,0 +1,67 @@
+package caselab.service.secutiry;
+
+import caselab.configuration.security.JwtProperties;
+import caselab.domain.entity.AccessTokenRevocation;
+import caselab.domain.repository.AccessTokenRevocationRepository;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Отзыв access-токенов: токены пользователя, выпущенные до момента отзыва, отклоняются без обращения к БД.
+// Отзывы хранятся в access_token_revocation и раз в app.token-denylist.refresh-interval загружаются в память узла,
+// на узле, выполнившем отзыв, он действует сразу. Отзыв старше срока жизни access-токена больше не нужен и удаляется.
+// iat хранится с точностью до секунды, поэтому момент отзыва тоже округляется до секунды вниз
+@Slf4j
+@Service
+@EnableScheduling
+@RequiredArgsConstructor
+public class AccessTokenDenylist {
+
+    private final AccessTokenRevocationRepository accessTokenRevocationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JwtProperties jwtProperties;
+
+    private volatile Map<String, Instant> revocations = Map.of();
+
+    // Вызывается в транзакции изменения пользователя: запись появится в БД вместе с ней
+    public void revoke(String email) {
+        var revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        accessTokenRevocationRepository.revoke(email, revokedAt.atOffset(ZoneOffset.UTC));
+        synchronized (this) {
+            var updated = new HashMap<>(revocations);
+            updated.merge(email, revokedAt, (current, added) -> current.isAfter(added) ? current : added);
+            revocations = Map.copyOf(updated);
+        }
+    }
+
+    public boolean isRevoked(String email, Date issuedAt) {
+        var revokedAt = revocations.get(email);
+        return revokedAt != null && (issuedAt == null || issuedAt.toInstant().isBefore(revokedAt));
+    }
+
+    @Scheduled(fixedDelayString = "#{@tokenDenylist.refreshInterval}")
+    public void refresh() {
+        var threshold = OffsetDateTime.now().minus(jwtProperties.accessTokenTtl());
+        transactionTemplate.executeWithoutResult(status -> accessTokenRevocationRepository.deleteExpired(threshold));
+        var loaded = accessTokenRevocationRepository.findAll().stream()
+            .collect(Collectors.toMap(
+                AccessTokenRevocation::getEmail,
+                revocation -> revocation.getRevokedAt().toInstant()
+            ));
+        synchronized (this) {
+            revocations = Map.copyOf(loaded);
+        }
+        log.debug("Access token denylist refreshed, entries: {}", loaded.size());
+    }
+}
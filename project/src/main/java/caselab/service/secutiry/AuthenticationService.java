@@ -9,6 +9,7 @@ import caselab.domain.entity.RefreshToken;
 import caselab.domain.entity.enums.GlobalPermissionName;
 import caselab.domain.repository.ApplicationUserRepository;
 import caselab.domain.repository.GlobalPermissionRepository;
+import caselab.exception.RefreshTokenReusedException;
 import caselab.exception.entity.already_exists.UserAlreadyExistsException;
 import caselab.exception.entity.not_found.UserNotFoundException;
 import caselab.service.notification.email.EmailNotificationDetails;
@@ -40,6 +41,7 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
 
     private final RefreshTokenService refreshTokenService;
+    private final UserPrincipalService userPrincipalService;
 
     public void register(RegisterRequest request, Authentication authentication) {
         userUtilService.checkUserGlobalPermission(
@@ -55,6 +57,7 @@ public class AuthenticationService {
             .hashedPassword(encodePassword(request.password()))
             .build();
         appUserRepository.save(user);
+        userPrincipalService.evict(user.getEmail());
         sendMessage(request);
     }
 
@@ -73,6 +76,8 @@ public class AuthenticationService {
         return new AuthenticationResponse(accessToken, refreshToken);
     }
 
+    // Отзыв семейства при повторном использовании токена должен сохраниться, несмотря на исключение
+    @Transactional(dontRollbackOn = RefreshTokenReusedException.class)
     public AuthenticationResponse refreshToken(RefreshTokenRequest request) {
         RefreshToken token = refreshTokenService.getByToken(request.token());
 
@@ -82,10 +87,8 @@ public class AuthenticationService {
             () -> new UserNotFoundException(token.getApplicationUser().getEmail())
         );
 
-        refreshTokenService.delete(token);
-
         String accessToken = jwtService.generateToken(user);
-        String refreshToken = refreshTokenService.create(user.getEmail());
+        String refreshToken = refreshTokenService.rotate(token);
 
         return new AuthenticationResponse(accessToken, refreshToken);
     }
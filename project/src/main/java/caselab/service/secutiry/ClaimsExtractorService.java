@@ -1,18 +1,48 @@
 package caselab.service.secutiry;
 
+import caselab.configuration.ApplicationConfig;
 import caselab.configuration.security.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class ClaimsExtractorService {
 
     private final JwtProperties jwtProperties;
+    private final Cache<String, Claims> claimsCache;
+
+    // Проверенные claims кэшируются по SHA-256 токена до его истечения: повторные запросы с тем же токеном
+    // не проверяют подпись и не разбирают JSON заново. Сам токен в памяти не хранится
+    public ClaimsExtractorService(
+        JwtProperties jwtProperties,
+        ApplicationConfig.ClaimsCache claimsCache,
+        MeterRegistry meterRegistry
+    ) {
+        this.jwtProperties = jwtProperties;
+        this.claimsCache = claimsCache.enable()
+            ? Caffeine.newBuilder()
+                .maximumSize(claimsCache.maximumSize())
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build()
+            : null;
+        if (this.claimsCache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, this.claimsCache, "jwt_claims");
+        }
+    }
 
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
@@ -31,11 +61,59 @@ public class ClaimsExtractorService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
+    // Проверяет подпись и срок действия: для просроченного токена выбрасывает ExpiredJwtException
+    public Claims extractAllClaims(String token) {
+        if (claimsCache == null) {
+            return parse(token);
+        }
+        var key = hash(token);
+        var claims = claimsCache.get(key, ignored -> parse(token));
+        // Часы кэша и срок токена могут расходиться: истекшая запись не возвращается, а разбирается заново
+        if (claims.getExpiration() != null && !claims.getExpiration().after(new Date())) {
+            claimsCache.invalidate(key);
+            return parse(token);
+        }
+        return claims;
+    }
+
+    private Claims parse(String token) {
         return Jwts.parser()
             .verifyWith(jwtProperties.getSignInKey())
             .build()
             .parseSignedClaims(token)
             .getPayload();
     }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Запись живет до exp токена, токены без exp вытесняются только по размеру кэша
+    private static final class UntilExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            var expiration = claims.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long millis = Math.max(expiration.getTime() - System.currentTimeMillis(), 0);
+            return TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
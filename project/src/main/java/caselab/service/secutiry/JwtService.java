@@ -6,6 +6,7 @@ import java.util.Date;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -14,10 +15,16 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class JwtService {
 
+    // Глобальные разрешения пользователя, по ним аутентификация без загрузки пользователя (jwt.stateless)
+    public static final String PERMISSIONS_CLAIM = "permissions";
+
     private final JwtProperties jwtProperties;
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(Map.of(), userDetails);
+        var permissions = userDetails.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+        return generateToken(Map.of(PERMISSIONS_CLAIM, permissions), userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -0,0 +1,59 @@
+package caselab.service.secutiry;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Удаляет истекшие refresh-токены пачками по app.refresh-token-purge.batch-size, каждая пачка в своей транзакции.
+// Строки выбираются с SKIP LOCKED, поэтому очистка на нескольких узлах не блокирует обмен токенов и друг друга
+@Slf4j
+@Service
+@EnableScheduling
+public class RefreshTokenCollector {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationConfig.RefreshTokenPurge properties;
+    private final Counter purged;
+    private final AtomicLong size = new AtomicLong();
+
+    public RefreshTokenCollector(
+        RefreshTokenRepository refreshTokenRepository,
+        TransactionTemplate transactionTemplate,
+        ApplicationConfig.RefreshTokenPurge refreshTokenPurge,
+        MeterRegistry meterRegistry
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = refreshTokenPurge;
+        this.purged = Counter.builder("refresh_tokens.purged")
+            .register(meterRegistry);
+        // Размер таблицы пересчитывается после каждой очистки
+        Gauge.builder("refresh_tokens.size", size, AtomicLong::get)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@refreshTokenPurge.interval}")
+    public void collect() {
+        int total = 0;
+        int collected;
+        do {
+            collected = transactionTemplate.execute(status ->
+                refreshTokenRepository.deleteExpired(LocalDateTime.now(), properties.batchSize()));
+            total += collected;
+        } while (collected == properties.batchSize());
+
+        purged.increment(total);
+        size.set(refreshTokenRepository.count());
+        log.debug("Removed " + total + " expired refresh tokens");
+    }
+}
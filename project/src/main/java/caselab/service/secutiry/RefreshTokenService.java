@@ -6,56 +6,102 @@ import caselab.domain.entity.RefreshToken;
 import caselab.domain.repository.ApplicationUserRepository;
 import caselab.domain.repository.RefreshTokenRepository;
 import caselab.exception.RefreshTokenExpirationException;
+import caselab.exception.RefreshTokenReusedException;
 import caselab.exception.entity.not_found.TokenNotFoundException;
 import caselab.exception.entity.not_found.UserNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-
-
+// В БД хранится только SHA-256 токена. Токены, полученные обменом из одного входа, образуют семейство:
+// использованный токен остается в таблице с отметкой rotated, и его повторное предъявление отзывает все семейство
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final JwtProperties jwtProperties;
     private final RefreshTokenRepository refreshTokenRepository;
     private final ApplicationUserRepository applicationUserRepository;
 
     public RefreshToken getByToken(String token) {
-        return refreshTokenRepository.findByToken(token)
+        var refreshToken = refreshTokenRepository.findByTokenHash(hash(token))
             .orElseThrow(() -> new TokenNotFoundException(token));
+        if (refreshToken.isRotated()) {
+            revokeFamily(refreshToken);
+            throw new RefreshTokenReusedException();
+        }
+        return refreshToken;
     }
 
+    // Новый вход открывает новое семейство
     public String create(String applicationUserEmail) {
         ApplicationUser applicationUser = applicationUserRepository.findByEmail(applicationUserEmail)
             .orElseThrow(() -> new UserNotFoundException(applicationUserEmail));
-        RefreshToken token = RefreshToken
-            .builder()
-            .applicationUser(applicationUser)
-            .expiresDate(
-                Instant
-                    .ofEpochMilli(System.currentTimeMillis() + jwtProperties.refreshTokenTtl().toMillis())
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime()
-            )
-            .token(UUID.randomUUID().toString())
-            .build();
-        return refreshTokenRepository.save(token).getToken();
+        return issue(applicationUser, UUID.randomUUID());
+    }
+
+    // Обменивает токен на новый из того же семейства.
+    // Если токен уже обменял параллельный запрос, это тоже повторное использование
+    public String rotate(RefreshToken refreshToken) {
+        if (refreshTokenRepository.markRotated(refreshToken.getId()) == 0) {
+            revokeFamily(refreshToken);
+            throw new RefreshTokenReusedException();
+        }
+        return issue(refreshToken.getApplicationUser(), refreshToken.getFamilyId());
+    }
+
+    public void revokeFamily(RefreshToken refreshToken) {
+        refreshTokenRepository.deleteFamily(refreshToken.getFamilyId());
     }
 
     public void delete(RefreshToken refreshToken) {
         refreshTokenRepository.delete(refreshToken);
     }
 
+    // Истекшие токены удаляет RefreshTokenCollector
     public RefreshToken verifyExpiration(RefreshToken refreshToken) {
         if (refreshToken.getExpiresDate().isBefore(LocalDateTime.now())) {
-            delete(refreshToken);
             throw new RefreshTokenExpirationException();
         }
         return refreshToken;
     }
 
+    private String issue(ApplicationUser applicationUser, UUID familyId) {
+        var bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken
+            .builder()
+            .applicationUser(applicationUser)
+            .familyId(familyId)
+            .expiresDate(
+                Instant
+                    .ofEpochMilli(System.currentTimeMillis() + jwtProperties.refreshTokenTtl().toMillis())
+                    .atZone(ZoneId.systemDefault())
+                    .toLocalDateTime()
+            )
+            .tokenHash(hash(token))
+            .build());
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package caselab.service.secutiry;
+
+import caselab.domain.entity.ApplicationUser;
+import io.jsonwebtoken.Claims;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// Неизменяемый снимок пользователя для контекста безопасности, хранится в кэше вместо JPA-сущности
+public record UserPrincipal(
+    Long id,
+    String email,
+    String hashedPassword,
+    List<SimpleGrantedAuthority> authorities
+) implements UserDetails {
+
+    public static UserPrincipal of(ApplicationUser user) {
+        return new UserPrincipal(
+            user.getId(),
+            user.getEmail(),
+            user.getHashedPassword(),
+            user.getGlobalPermissions().stream()
+                .map(permission -> new SimpleGrantedAuthority(permission.getName().name()))
+                .toList()
+        );
+    }
+
+    // Пользователь из claims токена: id и хэш пароля в токене не передаются
+    public static UserPrincipal of(Claims claims) {
+        List<?> permissions = claims.get(JwtService.PERMISSIONS_CLAIM, List.class);
+        return new UserPrincipal(
+            null,
+            claims.getSubject(),
+            null,
+            permissions.stream()
+                .map(permission -> new SimpleGrantedAuthority(String.valueOf(permission)))
+                .toList()
+        );
+    }
+
+    @Override
+    public List<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return hashedPassword;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
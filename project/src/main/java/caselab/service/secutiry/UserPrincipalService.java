@@ -0,0 +1,28 @@
+package caselab.service.secutiry;
+
+import caselab.configuration.CacheConfig;
+import caselab.domain.repository.ApplicationUserRepository;
+import caselab.exception.entity.not_found.UserNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class UserPrincipalService {
+
+    private final ApplicationUserRepository userRepository;
+
+    @Cacheable(cacheNames = CacheConfig.PRINCIPAL_CACHE, key = "#email")
+    public UserPrincipal loadPrincipal(String email) {
+        return userRepository.findByEmail(email)
+            .map(UserPrincipal::of)
+            .orElseThrow(() -> new UserNotFoundException(email));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAL_CACHE, key = "#email")
+    public void evict(String email) {
+        // Запись удаляется аспектом кэширования
+    }
+}
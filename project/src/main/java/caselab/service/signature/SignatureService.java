@@ -45,7 +45,7 @@ public class SignatureService {
         var user = userUtilService.findUserByAuthentication(authentication);
         var documentVersion = documentRepository.findById(documentId)
             .orElseThrow(() -> new DocumentNotFoundException(documentId))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         var signature = signatureRepository.findByApplicationUserAndDocumentVersion(user, documentVersion)
             .orElseThrow(SignatureNotFoundException::new);
@@ -102,7 +102,7 @@ public class SignatureService {
 
         var documentVersionForSign = documentRepository.findById(signRequest.documentId())
             .orElseThrow(() -> new DocumentNotFoundException(signRequest.documentId()))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         var user = userUtilService.findUserByAuthentication(auth);
         documentUtilService.assertHasPermission(
@@ -139,7 +139,7 @@ public class SignatureService {
 
         return user.getSignatures().stream()
             .filter(signature -> Objects.equals(
-                signature.getDocumentVersion().getDocument().getDocumentVersions().getFirst().getId(),
+                signature.getDocumentVersion().getDocument().getLatestVersion().getId(),
                 signature.getDocumentVersion().getId()))
             .map(signatureMapper::entityToResponse)
             .toList();
@@ -148,7 +148,7 @@ public class SignatureService {
     public List<SignatureResponse> findAllSignaturesByDocumentId(Long documentId) {
         var documentVersion = documentRepository.findById(documentId)
             .orElseThrow(() -> new DocumentNotFoundException(documentId))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         return documentVersion.getSignatures().stream()
             .map(signatureMapper::entityToResponse)
@@ -0,0 +1,78 @@
+package caselab.service.storage;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.StoredContent;
+import caselab.domain.repository.StoredContentRepository;
+import caselab.domain.storage.impl.DocumentVersionStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Удаляет из хранилища объекты, на которые не ссылается ни одна версия документа дольше grace-period.
+// Каждая пачка обрабатывается в своей транзакции: строки stored_content блокируются (SKIP LOCKED),
+// поэтому несколько экземпляров приложения не мешают друг другу, а загрузка того же содержимого
+// дождется окончания удаления и загрузит объект заново
+@Slf4j
+@Service
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.storage-gc", name = "enable", havingValue = "true")
+public class StoredContentCollector {
+
+    private final StoredContentRepository storedContentRepository;
+    private final DocumentVersionStorage documentVersionStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationConfig.StorageGc properties;
+    private final Counter deleted;
+
+    public StoredContentCollector(
+        StoredContentRepository storedContentRepository,
+        DocumentVersionStorage documentVersionStorage,
+        TransactionTemplate transactionTemplate,
+        ApplicationConfig.StorageGc storageGc,
+        MeterRegistry meterRegistry
+    ) {
+        this.storedContentRepository = storedContentRepository;
+        this.documentVersionStorage = documentVersionStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = storageGc;
+        this.deleted = Counter.builder("storage.gc.deleted")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@storageGc.interval}")
+    public void collect() {
+        int total = 0;
+        int collected;
+        do {
+            collected = transactionTemplate.execute(status -> collectBatch());
+            total += collected;
+        } while (collected == properties.batchSize());
+
+        if (total > 0) {
+            log.info("Removed " + total + " unreferenced objects from storage");
+        }
+    }
+
+    private int collectBatch() {
+        var threshold = OffsetDateTime.now().minus(properties.gracePeriod());
+        var garbage = storedContentRepository.findGarbageForUpdate(threshold, properties.batchSize())
+            .stream()
+            .map(StoredContent::getName)
+            .toList();
+        if (garbage.isEmpty()) {
+            return 0;
+        }
+
+        // Сначала объекты, затем строки: при ошибке хранилища транзакция откатится и пачка повторится
+        documentVersionStorage.deleteAll(garbage);
+        storedContentRepository.deleteUnreferenced(garbage);
+        deleted.increment(garbage.size());
+        return garbage.size();
+    }
+}
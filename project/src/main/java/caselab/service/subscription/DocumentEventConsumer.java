@@ -1,30 +1,129 @@
 package caselab.service.subscription;
 
 import caselab.domain.entity.DocumentEvent;
-import lombok.RequiredArgsConstructor;
+import caselab.domain.entity.Subscription;
+import caselab.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+// Получает события пачками (app.document-events.consumer-concurrency потоков-потребителей).
+// Внутри пачки события группируются по ключу записи (id документа): группы рассылаются параллельно
+// на виртуальных потоках, события одного документа - последовательно в порядке offset.
+// listen возвращает управление после доставки всей пачки, поэтому offset фиксируется уже после рассылки.
+// Отставание потребителя публикуют метрики клиента Kafka (kafka.consumer.fetch.manager.records.lag*)
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DocumentEventConsumer {
 
+    private static final String METRIC_NAME = "document.events.consume";
+
     private final SimpMessagingTemplate brokerMessagingTemplate;
+    private final SubscriptionRepository subscriptionRepository;
+
+    private final DistributionSummary batchSize;
+    private final Timer deliveryLatency;
+
+    public DocumentEventConsumer(
+        SimpMessagingTemplate brokerMessagingTemplate,
+        SubscriptionRepository subscriptionRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.brokerMessagingTemplate = brokerMessagingTemplate;
+        this.subscriptionRepository = subscriptionRepository;
+        this.batchSize = DistributionSummary.builder(METRIC_NAME + ".batch")
+            .register(meterRegistry);
+        this.deliveryLatency = Timer.builder(METRIC_NAME + ".latency")
+            .description("Время от публикации события до отправки в WebSocket")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(
+        topics = DocumentEventPublisher.TOPIC,
+        groupId = "my_consumer",
+        batch = "true",
+        concurrency = "#{@documentEvents.consumerConcurrency}"
+    )
+    public void listen(List<ConsumerRecord<String, DocumentEvent>> records) {
+        batchSize.record(records.size());
+        var subscribers = findSubscribers(records);
+
+        Map<String, List<ConsumerRecord<String, DocumentEvent>>> byKey = records.stream()
+            .collect(Collectors.groupingBy(this::keyOf, LinkedHashMap::new, Collectors.toList()));
+
+        // close дожидается завершения всех групп
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            byKey.values().forEach(group -> executor.execute(() ->
+                group.forEach(consumerRecord -> deliver(consumerRecord, subscribers))));
+        }
+        log.debug("Document events delivered: {}, documents: {}", records.size(), byKey.size());
+    }
+
+    private void deliver(ConsumerRecord<String, DocumentEvent> consumerRecord, Map<Long, List<String>> subscribers) {
+        var documentEvent = consumerRecord.value();
+        // Событие без получателя опубликовано на весь документ: рассылаем текущим подписчикам
+        var recipients = documentEvent.getUserEmail() != null
+            ? List.of(documentEvent.getUserEmail())
+            : subscribers.getOrDefault(documentEvent.getDocumentId(), List.of());
+
+        for (var userEmail : recipients) {
+            try {
+                sendNotificationToUser(userEmail, documentEvent);
+            } catch (MessagingException e) {
+                log.warn("Sending event {} to {} failed: {}", documentEvent, userEmail, e.getMessage());
+            }
+        }
+        if (consumerRecord.timestamp() > 0) {
+            long latency = System.currentTimeMillis() - consumerRecord.timestamp();
+            deliveryLatency.record(Duration.ofMillis(Math.max(latency, 0)));
+        }
+    }
 
-    @KafkaListener(topics = "event-topic", groupId = "my_consumer")
-    public void listen(DocumentEvent documentEvent) {
-        log.info("Message event: {}", documentEvent);
-        sendNotificationToUser(documentEvent);
+    // Подписчики всех документов пачки загружаются одним запросом
+    private Map<Long, List<String>> findSubscribers(List<ConsumerRecord<String, DocumentEvent>> records) {
+        var documentIds = records.stream()
+            .map(ConsumerRecord::value)
+            .filter(documentEvent -> documentEvent.getUserEmail() == null)
+            .map(DocumentEvent::getDocumentId)
+            .collect(Collectors.toSet());
+        if (documentIds.isEmpty()) {
+            return Map.of();
+        }
+        return subscriptionRepository.findAllByDocumentIdIn(documentIds).stream()
+            .collect(Collectors.groupingBy(
+                Subscription::getDocumentId,
+                Collectors.mapping(Subscription::getUserEmail, Collectors.toList())
+            ));
+    }
+
+    // Записи, опубликованные без ключа, группируются по id документа
+    private String keyOf(ConsumerRecord<String, DocumentEvent> consumerRecord) {
+        return Objects.requireNonNullElseGet(
+            consumerRecord.key(),
+            () -> String.valueOf(consumerRecord.value().getDocumentId())
+        );
     }
 
-    private void sendNotificationToUser(DocumentEvent documentEvent) {
+    private void sendNotificationToUser(String userEmail, DocumentEvent documentEvent) {
         this.brokerMessagingTemplate.convertAndSendToUser(
-            documentEvent.getUserEmail(),
+            userEmail,
             "/queue/notifications",
-            documentEvent
+            new DocumentEvent(documentEvent.getDocumentId(), userEmail, documentEvent.getEventType())
         );
     }
 }
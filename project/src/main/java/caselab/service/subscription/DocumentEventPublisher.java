@@ -0,0 +1,80 @@
+package caselab.service.subscription;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.DocumentEvent;
+import caselab.domain.entity.enums.EventType;
+import caselab.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+// Публикует события документа в Kafka с ключом documentId: все события одного документа попадают
+// в одну партицию и читаются в порядке публикации. В режиме CONSUMER публикуется одно событие на документ,
+// подписчиков находит DocumentEventConsumer; в режиме PRODUCER - по событию на подписчика.
+// Отправка асинхронная, пачки собирает продюсер (linger.ms / batch.size)
+@Slf4j
+@Component
+public class DocumentEventPublisher {
+
+    public static final String TOPIC = "event-topic";
+
+    private static final String METRIC_NAME = "document.events.publish";
+    private static final String RESULT_TAG = "result";
+
+    private final KafkaTemplate<String, DocumentEvent> kafkaTemplate;
+    private final SubscriptionRepository subscriptionRepository;
+    private final ApplicationConfig.DocumentEvents properties;
+
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Counter fannedOut;
+
+    public DocumentEventPublisher(
+        KafkaTemplate<String, DocumentEvent> kafkaTemplate,
+        SubscriptionRepository subscriptionRepository,
+        ApplicationConfig.DocumentEvents documentEvents,
+        MeterRegistry meterRegistry
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.subscriptionRepository = subscriptionRepository;
+        this.properties = documentEvents;
+
+        this.succeeded = Timer.builder(METRIC_NAME)
+            .tag(RESULT_TAG, "success")
+            .register(meterRegistry);
+        this.failed = Timer.builder(METRIC_NAME)
+            .tag(RESULT_TAG, "failure")
+            .register(meterRegistry);
+        this.fannedOut = Counter.builder(METRIC_NAME + ".recipients")
+            .register(meterRegistry);
+    }
+
+    public void publish(Long documentId, EventType eventType) {
+        if (properties.fanOut() == ApplicationConfig.DocumentEvents.FanOut.CONSUMER) {
+            send(new DocumentEvent(documentId, null, eventType));
+            return;
+        }
+
+        List<String> recipients = subscriptionRepository.findUserEmailsByDocumentId(documentId);
+        recipients.forEach(userEmail -> send(new DocumentEvent(documentId, userEmail, eventType)));
+        fannedOut.increment(recipients.size());
+    }
+
+    private void send(DocumentEvent documentEvent) {
+        long startedAt = System.nanoTime();
+        kafkaTemplate.send(TOPIC, String.valueOf(documentEvent.getDocumentId()), documentEvent)
+            .whenComplete((result, e) -> {
+                Timer timer = e == null ? succeeded : failed;
+                timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                if (e != null) {
+                    log.error("Sending document event {} to kafka failed", documentEvent, e);
+                }
+            });
+        log.debug("Send document event to kafka: {}", documentEvent);
+    }
+}
@@ -1,6 +1,5 @@
 package caselab.service.subscription;
 
-import caselab.domain.entity.DocumentEvent;
 import caselab.domain.entity.Subscription;
 import caselab.domain.entity.enums.EventType;
 import caselab.domain.repository.DocumentRepository;
@@ -12,7 +11,6 @@ import jakarta.transaction.Transactional;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -23,21 +21,10 @@ public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final DocumentRepository documentRepository;
-    private final KafkaTemplate<String, DocumentEvent> kafkaTemplate;
+    private final DocumentEventPublisher documentEventPublisher;
 
     public boolean sendEvent(Long documentId, EventType eventType) {
-        var subscriptions = subscriptionRepository.findAllByDocumentId(documentId);
-
-        subscriptions.forEach(subscription -> {
-            var documentEvent = DocumentEvent.builder()
-                .userEmail(subscription.getUserEmail())
-                .documentId(documentId)
-                .eventType(eventType)
-                .build();
-
-            kafkaTemplate.send("event-topic", documentEvent);
-            log.info("Send document event to kafka: {}", documentEvent);
-        });
+        documentEventPublisher.publish(documentId, eventType);
         return true;
     }
 
@@ -0,0 +1,11 @@
+package caselab.service.types;
+
+import caselab.controller.types.payload.DocumentTypeResponse;
+import java.util.Set;
+
+// Неизменяемое представление типа документа из снимка DocumentTypeSchemaCache
+public record DocumentTypeSchema(
+    DocumentTypeResponse response,
+    Set<Long> mandatoryAttributeIds
+) {
+}
@@ -0,0 +1,193 @@
+package caselab.service.types;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.DocumentType;
+import caselab.domain.repository.DocumentTypesRepository;
+import caselab.service.types.mapper.DocumentTypeMapper;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Снимок всех типов документов с атрибутами для путей чтения: проверки обязательных атрибутов и ответов API.
+// Снимок неизменяемый и заменяется целиком. Изменение типов и атрибутов после коммита увеличивает поколение,
+// снимок устаревшего поколения пересобирается одним запросом.
+// Изменения, сделанные на других узлах, становятся видны не позже app.document-type-cache.ttl.
+// Снимок собирается одним фоновым потоком в собственной read-only транзакции: читатели не ждут сборку
+// и не держат свое соединение, пока сборке нужно второе. До сборки и во время нее читатели получают прежний
+// снимок, а до первой сборки пустой, и берут тип из сущности
+@Slf4j
+@Service
+public class DocumentTypeSchemaCache {
+
+    private final DocumentTypesRepository documentTypesRepository;
+    private final DocumentTypeMapper documentTypeMapper;
+    private final TransactionTemplate loadTransaction;
+    private final ApplicationConfig.DocumentTypeCache properties;
+    private final Executor refresher;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DocumentTypeSchemaCache(
+        DocumentTypesRepository documentTypesRepository,
+        DocumentTypeMapper documentTypeMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationConfig.DocumentTypeCache documentTypeCache
+    ) {
+        this(
+            documentTypesRepository,
+            documentTypeMapper,
+            transactionManager,
+            documentTypeCache,
+            Executors.newVirtualThreadPerTaskExecutor()
+        );
+    }
+
+    DocumentTypeSchemaCache(
+        DocumentTypesRepository documentTypesRepository,
+        DocumentTypeMapper documentTypeMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationConfig.DocumentTypeCache documentTypeCache,
+        Executor refresher
+    ) {
+        this.documentTypesRepository = documentTypesRepository;
+        this.documentTypeMapper = documentTypeMapper;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.properties = documentTypeCache;
+        this.refresher = refresher;
+    }
+
+    public Optional<DocumentTypeSchema> find(long documentTypeId) {
+        return current().find(documentTypeId);
+    }
+
+    // Внутри транзакции снимок устаревает после коммита, иначе параллельное чтение соберет его из старых данных
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    refresh();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+            refresh();
+        }
+    }
+
+    private Snapshot current() {
+        if (!isFresh(snapshot)) {
+            refresh();
+        }
+        var current = snapshot;
+        return current != null ? current : Snapshot.EMPTY;
+    }
+
+    // Одновременно выполняется одна сборка, остальные вызовы ее не ждут
+    private void refresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            refresher.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            // Поколение фиксируется до чтения: изменение во время сборки оставит снимок устаревшим
+            long loadedGeneration = generation.get();
+            var rebuilt = Snapshot.of(loadedGeneration, loadTransaction.execute(status -> load()));
+            snapshot = rebuilt;
+            log.debug("Document type snapshot {} rebuilt, types: {}", loadedGeneration, rebuilt.size());
+        } catch (RuntimeException e) {
+            log.warn("Document type snapshot rebuild failed", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+            && current.generation() == generation.get()
+            && current.loadedAt().plus(properties.ttl()).isAfter(Instant.now());
+    }
+
+    private List<DocumentTypeSchema> load() {
+        return documentTypesRepository.findAllWithAttributes().stream()
+            .map(this::toSchema)
+            .toList();
+    }
+
+    private DocumentTypeSchema toSchema(DocumentType documentType) {
+        Set<Long> mandatoryAttributeIds = documentType.getDocumentTypesToAttributes().stream()
+            .filter(link -> !link.getIsOptional())
+            .map(link -> link.getAttribute().getId())
+            .collect(Collectors.toUnmodifiableSet());
+        return new DocumentTypeSchema(documentTypeMapper.entityToResponse(documentType), mandatoryAttributeIds);
+    }
+
+    // Типы упорядочены по id, поиск двоичный по массиву long без упаковки ключей
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(-1, new long[0], new DocumentTypeSchema[0]);
+
+        private final long generation;
+        private final Instant loadedAt;
+        private final long[] ids;
+        private final DocumentTypeSchema[] schemas;
+
+        private Snapshot(long generation, long[] ids, DocumentTypeSchema[] schemas) {
+            this.generation = generation;
+            this.loadedAt = Instant.now();
+            this.ids = ids;
+            this.schemas = schemas;
+        }
+
+        static Snapshot of(long generation, List<DocumentTypeSchema> loaded) {
+            var sorted = loaded.stream()
+                .sorted(Comparator.comparingLong(schema -> schema.response().id()))
+                .toArray(DocumentTypeSchema[]::new);
+            var ids = Arrays.stream(sorted)
+                .mapToLong(schema -> schema.response().id())
+                .toArray();
+            return new Snapshot(generation, ids, sorted);
+        }
+
+        Optional<DocumentTypeSchema> find(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index < 0 ? Optional.empty() : Optional.of(schemas[index]);
+        }
+
+        long generation() {
+            return generation;
+        }
+
+        Instant loadedAt() {
+            return loadedAt;
+        }
+
+        int size() {
+            return ids.length;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
@@ -44,6 +45,7 @@ public class DocumentTypesService {
     private final DocumentTypeToAttributeRepository documentTypeToAttributeRepository;
 
     private final DocumentTypeMapper documentTypeMapper;
+    private final DocumentTypeSchemaCache documentTypeSchemaCache;
 
     public DocumentTypeResponse createDocumentType(DocumentTypeRequest request, Authentication authentication) {
         userUtilService.checkUserGlobalPermission(
@@ -55,11 +57,14 @@ public class DocumentTypesService {
 
         documentTypesRepository.save(documentType); // Сохраняем документ, чтобы получить ID
         documentType.setDocumentTypesToAttributes(linkAttributesToDocument(request, documentType));
+        documentTypeSchemaCache.invalidate();
         return documentTypeMapper.entityToResponse(documentType);
     }
 
     public DocumentTypeResponse getDocumentTypeById(Long id) {
-        return documentTypeMapper.entityToResponse(findDocumentTypeById(id));
+        return documentTypeSchemaCache.find(id)
+            .map(DocumentTypeSchema::response)
+            .orElseGet(() -> documentTypeMapper.entityToResponse(findDocumentTypeById(id)));
     }
 
     public Page<DocumentTypeResponse> getAllDocumentTypes(
@@ -70,8 +75,10 @@ public class DocumentTypesService {
     ) {
         Pageable pageable = PageUtil.toPageable(pageNum, pageSize, Sort.by("name"), sortStrategy);
 
-        return documentTypesRepository.findAll(GenericSpecifications.filterBy(searchRequest.getFilters()), pageable)
-            .map(documentTypeMapper::entityToResponse);
+        Specification<DocumentType> specification =
+            GenericSpecifications.filterBy(searchRequest.getFilters(), searchRequest.getConditions());
+        return documentTypesRepository.findAll(specification, pageable)
+            .map(this::toResponse);
     }
 
     public Page<DocumentTypeResponse> getAllDocumentTypes(
@@ -83,7 +90,7 @@ public class DocumentTypesService {
             pageNum,
             pageSize,
             sortStrategy,
-            new SearchRequest(null) // Передаем null, для совместимости с прошлым получением всех сущностей
+            new SearchRequest()
         );
     }
 
@@ -103,6 +110,7 @@ public class DocumentTypesService {
         updatedDocumentType.setDocuments(new ArrayList<>(documentType.getDocuments()));
         documentTypesRepository.save(updatedDocumentType);
         updatedDocumentType.setDocumentTypesToAttributes(linkAttributesToDocument(request, updatedDocumentType));
+        documentTypeSchemaCache.invalidate();
 
         return documentTypeMapper.entityToResponse(updatedDocumentType);
     }
@@ -119,6 +127,14 @@ public class DocumentTypesService {
         }
 
         documentTypesRepository.delete(documentType);
+        documentTypeSchemaCache.invalidate();
+    }
+
+    // Атрибуты типа берутся из снимка, а не догружаются для каждого типа страницы
+    private DocumentTypeResponse toResponse(DocumentType documentType) {
+        return documentTypeSchemaCache.find(documentType.getId())
+            .map(DocumentTypeSchema::response)
+            .orElseGet(() -> documentTypeMapper.entityToResponse(documentType));
     }
 
     // Поиск и связывания атрибутов с документом
@@ -1,5 +1,6 @@
 package caselab.service.users;
 
+import caselab.controller.payload.CursorPageResponse;
 import caselab.controller.users.payload.UserResponse;
 import caselab.controller.users.payload.UserUpdateRequest;
 import caselab.domain.entity.ApplicationUser;
@@ -8,12 +9,18 @@ import caselab.domain.entity.search.GenericSpecifications;
 import caselab.domain.entity.search.SearchRequest;
 import caselab.domain.repository.ApplicationUserRepository;
 import caselab.exception.entity.not_found.UserNotFoundException;
+import caselab.service.secutiry.AccessTokenDenylist;
 import caselab.service.secutiry.AuthenticationService;
+import caselab.service.secutiry.UserPrincipalService;
 import caselab.service.users.mapper.UserMapper;
+import caselab.service.util.CursorUtil;
 import caselab.service.util.UserUtilService;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
@@ -23,21 +30,43 @@ import org.springframework.stereotype.Service;
 public class ApplicationUserService {
 
     private final AuthenticationService authService;
+    private final UserPrincipalService userPrincipalService;
+    private final AccessTokenDenylist accessTokenDenylist;
     private final UserUtilService userUtilService;
 
     private final ApplicationUserRepository userRepository;
     private final UserMapper mapper;
 
     public List<UserResponse> findAllUsers(SearchRequest searchRequest) {
-        List<ApplicationUser> users =
-            userRepository.findAll(GenericSpecifications.filterBy(searchRequest.getFilters()));
+        List<ApplicationUser> users = userRepository.findAll(
+            GenericSpecifications.filterBy(searchRequest.getFilters(), searchRequest.getConditions())
+        );
         return users.stream()
             .map(mapper::entityToResponse)
             .toList();
     }
 
     public List<UserResponse> findAllUsers() {
-        return findAllUsers(new SearchRequest(null)); // Передаем фильтры как null, для совместимсти
+        return findAllUsers(new SearchRequest());
+    }
+
+    public CursorPageResponse<UserResponse> scrollUsers(String cursor, Integer pageSize) {
+        var position = CursorUtil.toPosition(cursor, keys -> Map.of("id", Long.valueOf(keys.get(0))));
+
+        Window<ApplicationUser> users = userRepository.findBy(
+            GenericSpecifications.filterBy(null),
+            query -> query
+                .sortBy(Sort.by("id"))
+                .limit(CursorUtil.toLimit(pageSize))
+                .scroll(position)
+        );
+
+        String nextCursor = users.hasNext() ? CursorUtil.encode(users.getContent().getLast().getId()) : null;
+        return new CursorPageResponse<>(
+            users.getContent().stream().map(mapper::entityToResponse).toList(),
+            nextCursor,
+            users.hasNext()
+        );
     }
 
     public UserResponse findUser(String email) {
@@ -57,6 +86,7 @@ public class ApplicationUserService {
 
         userToUpdate.setHashedPassword(authService.encodePassword(updateRequest.password()));
         userToUpdate.setDisplayName(updateRequest.displayName());
+        userPrincipalService.evict(userToUpdate.getEmail());
 
         return mapper.entityToResponse(userRepository.save(userToUpdate));
     }
@@ -66,5 +96,7 @@ public class ApplicationUserService {
             userUtilService.findUserByAuthentication(authentication), GlobalPermissionName.ADMIN);
 
         userRepository.delete(userRepository.findByEmail(email).orElseThrow(() -> new UserNotFoundException(email)));
+        userPrincipalService.evict(email);
+        accessTokenDenylist.revoke(email);
     }
 }
@@ -0,0 +1,58 @@
+package caselab.service.util;
+
+import caselab.exception.search.InvalidCursorException;
+import caselab.exception.search.InvalidPageSizeException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+// Курсор - base64 от значений ключей последнего элемента страницы, порядок ключей задает вызывающий код
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorUtil {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(Object... keys) {
+        String joined = Arrays.stream(keys)
+            .map(String::valueOf)
+            .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition toPosition(
+        String cursor,
+        Function<List<String>, Map<String, Object>> keysParser
+    ) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return ScrollPosition.forward(keysParser.apply(List.of(decoded.split("\\" + SEPARATOR, -1))));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static int toLimit(Integer pageSize) {
+        if (pageSize == null) {
+            return PageUtil.DEFAULT_PAGE_SIZE;
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidPageSizeException(pageSize, MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+}
@@ -0,0 +1,115 @@
+package caselab.service.util;
+
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.DocumentPermission;
+import caselab.domain.entity.UserToDocument;
+import caselab.domain.entity.enums.DocumentPermissionName;
+import caselab.domain.repository.UserToDocumentRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// Снимок разрешений пользователей на документы в рамках одного HTTP-запроса.
+// Разрешения хранятся битовой маской по ordinal DocumentPermissionName, 0 - у пользователя нет доступа к документу.
+// Вне HTTP-запроса (планировщик, consumer) снимок не сохраняется и каждая проверка обращается к БД
+@Component
+@RequiredArgsConstructor
+public class DocumentPermissionResolver {
+
+    private static final String SNAPSHOT_ATTRIBUTE = DocumentPermissionResolver.class.getName() + ".SNAPSHOT";
+    private static final DocumentPermissionName[] PERMISSIONS = DocumentPermissionName.values();
+    private static final int NO_PERMISSIONS = 0;
+
+    private final UserToDocumentRepository userToDocumentRepository;
+
+    public boolean hasPermission(
+        ApplicationUser user,
+        Long documentId,
+        Predicate<DocumentPermissionName> permission
+    ) {
+        int mask = getSnapshot(user).computeIfAbsent(documentId, id -> loadMask(user, id));
+        for (DocumentPermissionName name : PERMISSIONS) {
+            if ((mask & bit(name)) != 0 && permission.test(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Загружает разрешения на еще не проверенные документы одним запросом
+    public void preload(ApplicationUser user, Collection<Long> documentIds) {
+        var snapshot = getSnapshot(user);
+        var missingIds = documentIds.stream()
+            .filter(id -> !snapshot.containsKey(id))
+            .distinct()
+            .toList();
+        if (missingIds.isEmpty()) {
+            return;
+        }
+
+        missingIds.forEach(id -> snapshot.put(id, NO_PERMISSIONS));
+        userToDocumentRepository.findAllByApplicationUserIdAndDocumentIdIn(user.getId(), missingIds)
+            .forEach(userToDocument -> snapshot.merge(
+                userToDocument.getDocument().getId(),
+                toMask(userToDocument),
+                (first, second) -> first | second
+            ));
+    }
+
+    // Вызывается после изменения разрешений на документ, чтобы последующие проверки увидели новые данные
+    public void evict(Long documentId) {
+        var snapshots = findSnapshots();
+        if (snapshots != null) {
+            snapshots.values().forEach(snapshot -> snapshot.remove(documentId));
+        }
+    }
+
+    private int loadMask(ApplicationUser user, Long documentId) {
+        return userToDocumentRepository.findByApplicationUserIdAndDocumentId(user.getId(), documentId)
+            .map(this::toMask)
+            .orElse(NO_PERMISSIONS);
+    }
+
+    private int toMask(UserToDocument userToDocument) {
+        int mask = NO_PERMISSIONS;
+        for (DocumentPermission permission : userToDocument.getDocumentPermissions()) {
+            mask |= bit(permission.getName());
+        }
+        return mask;
+    }
+
+    private int bit(DocumentPermissionName name) {
+        return 1 << name.ordinal();
+    }
+
+    private Map<Long, Integer> getSnapshot(ApplicationUser user) {
+        var snapshots = findSnapshots();
+        if (snapshots == null) {
+            return new HashMap<>();
+        }
+        return snapshots.computeIfAbsent(user.getId(), id -> new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<Long, Integer>> findSnapshots() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        var snapshots = (Map<Long, Map<Long, Integer>>) attributes.getAttribute(
+            SNAPSHOT_ATTRIBUTE,
+            RequestAttributes.SCOPE_REQUEST
+        );
+        if (snapshots == null) {
+            snapshots = new HashMap<>();
+            attributes.setAttribute(SNAPSHOT_ATTRIBUTE, snapshots, RequestAttributes.SCOPE_REQUEST);
+        }
+        return snapshots;
+    }
+}
@@ -2,15 +2,11 @@ package caselab.service.util;
 
 import caselab.domain.entity.ApplicationUser;
 import caselab.domain.entity.Document;
-import caselab.domain.entity.DocumentPermission;
-import caselab.domain.entity.UserToDocument;
 import caselab.domain.entity.enums.DocumentPermissionName;
 import caselab.domain.entity.enums.DocumentStatus;
-import caselab.domain.repository.UserToDocumentRepository;
 import caselab.exception.document.version.MissingDocumentPermissionException;
 import caselab.exception.status.DocumentStatusException;
 import java.util.List;
-import java.util.Optional;
 import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,22 +15,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DocumentUtilService {
 
-    private final UserToDocumentRepository userToDocumentRepository;
+    private final DocumentPermissionResolver permissionResolver;
 
     public boolean checkLacksPermission(
         ApplicationUser user,
         Document document,
         Predicate<DocumentPermissionName> permission
     ) {
-        Optional<UserToDocument> userToDocument = userToDocumentRepository.findByApplicationUserIdAndDocumentId(
-            user.getId(),
-            document.getId()
-        );
-        return userToDocument.map(toDocument -> toDocument
-            .getDocumentPermissions()
-            .stream()
-            .map(DocumentPermission::getName)
-            .noneMatch(permission)).orElse(true);
+        return !permissionResolver.hasPermission(user, document.getId(), permission);
     }
 
     public void assertHasPermission(
@@ -48,6 +36,10 @@ public class DocumentUtilService {
         }
     }
 
+    public void evictPermissions(Document document) {
+        permissionResolver.evict(document.getId());
+    }
+
     public void assertHasDocumentStatus(
         Document document,
         List<DocumentStatus> statuses,
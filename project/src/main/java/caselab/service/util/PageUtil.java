@@ -20,11 +20,7 @@ public class PageUtil {
         int num = pageNum != null ? pageNum : DEFAULT_PAGE_NUM;
         int size = pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
 
-        Sort validSortBy = switch (sortStrategy.toLowerCase()) {
-            case "desc" -> sortBy.descending();
-            case "asc" -> sortBy.ascending();
-            default -> throw new IllegalArgumentException("Parameter sortStrategy: " + sortStrategy + " is not valid");
-        };
+        Sort validSortBy = toDirection(sortStrategy).isAscending() ? sortBy.ascending() : sortBy.descending();
 
         return PageRequest.of(num, size, validSortBy);
     }
@@ -39,4 +35,12 @@ public class PageUtil {
         return PageRequest.of(num, size);
     }
 
+    public static Sort.Direction toDirection(String sortStrategy) {
+        return switch (sortStrategy.toLowerCase()) {
+            case "desc" -> Sort.Direction.DESC;
+            case "asc" -> Sort.Direction.ASC;
+            default -> throw new IllegalArgumentException("Parameter sortStrategy: " + sortStrategy + " is not valid");
+        };
+    }
+
 }
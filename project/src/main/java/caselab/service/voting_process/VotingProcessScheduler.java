@@ -1,5 +1,6 @@
 package caselab.service.voting_process;
 
+import caselab.configuration.ApplicationConfig;
 import caselab.domain.entity.Vote;
 import caselab.domain.entity.VotingProcess;
 import caselab.domain.entity.enums.DocumentStatus;
@@ -8,43 +9,118 @@ import caselab.domain.entity.enums.VotingProcessStatus;
 import caselab.domain.repository.VotingProcessRepository;
 import caselab.service.notification.email.EmailNotificationDetails;
 import caselab.service.notification.email.EmailService;
-import jakarta.transaction.Transactional;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+// Закрывает голосования с истекшим дедлайном. Обработка запускается на ближайший дедлайн
+// и страховочно раз в app.scheduler.interval (так подхватываются голосования, созданные на других узлах).
+// Истекшие голосования обрабатываются пачками по app.scheduler.batch-size, каждая в своей транзакции;
+// строки блокируются с SKIP LOCKED, поэтому несколько узлов не закроют одно голосование дважды
 @SuppressWarnings({"MissingSwitchDefault", "MagicNumber"})
 @Slf4j
 @Service
-@Transactional
 @EnableScheduling
 @RequiredArgsConstructor
 public class VotingProcessScheduler {
 
     private final VotingProcessRepository votingProcessRepository;
     private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationConfig.Scheduler properties;
+
+    private ScheduledFuture<?> wakeup;
+    private Instant wakeupAt;
 
     @Scheduled(fixedDelayString = "#{@scheduler.interval}")
     public void deadlineProcessing() {
         log.info("Deadline processing...");
-        var votingProcesses = votingProcessRepository.findAll();
-        for (VotingProcess votingProcess : votingProcesses) {
-            if (votingProcess.getStatus() == VotingProcessStatus.IN_PROGRESS
-                && votingProcess.getDeadline().isBefore(OffsetDateTime.now())) {
-                var statistics = calculateResult(votingProcess);
-                votingProcess.setStatus(statistics.getVotingProcessStatus());
-                votingProcess.getDocumentVersion().getDocument().setStatus(
-                    statistics.getVotingProcessStatus() == VotingProcessStatus.ACCEPTED
-                        ? DocumentStatus.VOTING_ACCEPTED : DocumentStatus.VOTING_REJECTED);
-                votingProcessRepository.save(votingProcess);
-                votingProcess.getVotes().forEach((vote) -> sendMessage(vote, statistics));
-            }
+        int processed = processExpired();
+        scheduleNearestDeadline();
+        log.info("Completed, voting processes closed: " + processed);
+    }
+
+    // Планирует обработку на момент дедлайна, если он раньше уже запланированной.
+    // Внутри транзакции планирование откладывается до коммита, чтобы голосование было видно запросу
+    public void scheduleWakeup(OffsetDateTime deadline) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleWakeupAt(deadline.toInstant());
+                }
+            });
+        } else {
+            scheduleWakeupAt(deadline.toInstant());
+        }
+    }
+
+    private synchronized void scheduleWakeupAt(Instant deadline) {
+        // Истекшее, но заблокированное другим узлом голосование проверяется повторно не сразу
+        Instant at = deadline.isAfter(Instant.now()) ? deadline : Instant.now().plus(properties.forceCheckDelay());
+        if (wakeup != null && !wakeup.isDone() && !at.isBefore(wakeupAt)) {
+            return;
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        wakeupAt = at;
+        wakeup = taskScheduler.schedule(this::onWakeup, at);
+    }
+
+    private void onWakeup() {
+        synchronized (this) {
+            wakeup = null;
+            wakeupAt = null;
+        }
+        try {
+            log.debug("Deadline wakeup, voting processes closed: " + processExpired());
+        } finally {
+            scheduleNearestDeadline();
         }
-        log.info("Completed");
+    }
+
+    private void scheduleNearestDeadline() {
+        votingProcessRepository.findNearestDeadline(VotingProcessStatus.IN_PROGRESS)
+            .ifPresent(deadline -> scheduleWakeupAt(deadline.toInstant()));
+    }
+
+    private int processExpired() {
+        int batchSize = Math.max(properties.batchSize(), 1);
+        int total = 0;
+        int processed;
+        do {
+            processed = transactionTemplate.execute(status -> processBatch(batchSize));
+            total += processed;
+        } while (processed == batchSize);
+        return total;
+    }
+
+    private int processBatch(int batchSize) {
+        var votingProcesses = votingProcessRepository.findExpiredForUpdate(OffsetDateTime.now(), batchSize);
+        votingProcesses.forEach(this::finishVotingProcess);
+        return votingProcesses.size();
+    }
+
+    private void finishVotingProcess(VotingProcess votingProcess) {
+        var statistics = calculateResult(votingProcess);
+        votingProcess.setStatus(statistics.getVotingProcessStatus());
+        votingProcess.getDocumentVersion().getDocument().setStatus(
+            statistics.getVotingProcessStatus() == VotingProcessStatus.ACCEPTED
+                ? DocumentStatus.VOTING_ACCEPTED : DocumentStatus.VOTING_REJECTED);
+        votingProcessRepository.save(votingProcess);
+        votingProcess.getVotes().forEach((vote) -> sendMessage(vote, statistics));
     }
 
     private VotingStatistics calculateResult(VotingProcess votingProcess) {
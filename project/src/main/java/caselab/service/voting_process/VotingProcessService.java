@@ -45,6 +45,7 @@ public class VotingProcessService {
     private final UserUtilService userUtilService;
     private final DocumentUtilService documentUtilService;
     private final EmailService emailService;
+    private final VotingProcessScheduler votingProcessScheduler;
 
     private final ApplicationUserRepository applicationUserRepository;
     private final DocumentRepository documentRepository;
@@ -57,7 +58,7 @@ public class VotingProcessService {
     public VotingProcessResponse createVotingProcess(VotingProcessRequest request, Authentication authentication) {
         var documentVersion = documentRepository.findById(request.documentId())
             .orElseThrow(() -> new DocumentNotFoundException(request.documentId()))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         var user = userUtilService.findUserByAuthentication(authentication);
         documentUtilService.assertHasPermission(
@@ -77,6 +78,7 @@ public class VotingProcessService {
         documentVersion.getDocument().setStatus(DocumentStatus.VOTING_IN_PROGRESS);
         votingProcessRepository.save(votingProcess);
         votingProcess.setVotes(saveVotes(request.emails(), votingProcess, authentication, user));
+        votingProcessScheduler.scheduleWakeup(votingProcess.getDeadline());
 
         votingProcess.getVotes().forEach(this::sendMessage);
         return votingProcessMapper.entityToResponse(votingProcess);
@@ -85,7 +87,7 @@ public class VotingProcessService {
     public VotingProcessResponse getVotingProcessByDocumentId(Long documentId) {
         var documentVersion = documentRepository.findById(documentId)
             .orElseThrow(() -> new DocumentNotFoundException(documentId))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         return votingProcessMapper.entityToResponse(votingProcessRepository.findByDocumentVersion(documentVersion)
             .orElseThrow(VotingProcessNotFoundException::new));
@@ -95,7 +97,7 @@ public class VotingProcessService {
         var user = userUtilService.findUserByAuthentication(authentication);
         var documentVersion = documentRepository.findById(voteRequest.documentId())
             .orElseThrow(() -> new DocumentNotFoundException(voteRequest.documentId()))
-            .getDocumentVersions().getFirst();
+            .getLatestVersion();
 
         var votingProcess = votingProcessRepository.findByDocumentVersion(documentVersion)
             .orElseThrow(VotingProcessNotFoundException::new);
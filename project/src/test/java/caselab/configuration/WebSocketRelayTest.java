@@ -0,0 +1,109 @@
+package caselab.configuration;
+
+import caselab.Application;
+import caselab.domain.IntegrationTest;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Рассылка через внешний STOMP-брокер: RabbitMQ с плагином rabbitmq_stomp
+@ActiveProfiles("test")
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WebSocketRelayTest extends IntegrationTest {
+
+    private static final int STOMP_PORT = 61613;
+    private static final int MESSAGES = 200;
+    private static final String EMAIL = "admin@gmail.com";
+    private static final GenericContainer<?> RABBITMQ = new GenericContainer<>("rabbitmq:3.13")
+        .withCopyToContainer(Transferable.of("[rabbitmq_stomp]."), "/etc/rabbitmq/enabled_plugins")
+        .withExposedPorts(STOMP_PORT)
+        .waitingFor(Wait.forLogMessage(".*Server startup complete.*", 1));
+
+    static {
+        RABBITMQ.start();
+    }
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker", () -> "RELAY");
+        registry.add("app.websocket.relay.host", RABBITMQ::getHost);
+        registry.add("app.websocket.relay.port", () -> RABBITMQ.getMappedPort(STOMP_PORT));
+    }
+
+    @Test
+    @DisplayName("Сообщения пользователю доходят через брокер в порядке публикации")
+    public void convertAndSendToUser_shouldDeliverThroughRelayInPublishOrder() throws Exception {
+        var token = jwtService.generateToken(
+            new UserPrincipal(1L, EMAIL, null, List.of(new SimpleGrantedAuthority("ADMIN"))));
+        var handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+
+        var stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        var session = stompClient.connectAsync(
+            "ws://localhost:" + port + "/ws",
+            handshakeHeaders,
+            new StompHeaders(),
+            new StompSessionHandlerAdapter() { }
+        ).get(30, TimeUnit.SECONDS);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        var subscribed = new CountDownLatch(1);
+        session.setAutoReceipt(true);
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertThat(subscribed.await(30, TimeUnit.SECONDS)).isTrue();
+
+        IntStream.range(0, MESSAGES)
+            .forEach(i -> messagingTemplate.convertAndSendToUser(EMAIL, "/queue/notifications", String.valueOf(i)));
+
+        for (int i = 0; i < MESSAGES; i++) {
+            assertThat(received.poll(30, TimeUnit.SECONDS)).isEqualTo(String.valueOf(i));
+        }
+        session.disconnect();
+    }
+}
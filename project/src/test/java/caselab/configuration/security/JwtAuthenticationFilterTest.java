@@ -0,0 +1,123 @@
+package caselab.configuration.security;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.service.secutiry.AccessTokenDenylist;
+import caselab.service.secutiry.ClaimsExtractorService;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String SECRET = "55d731c263e1ddb8e50eec214ccf010207b82cfb415c76976751a12f1f04c2ca";
+
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private MessageSource messageSource;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        var properties = properties(true);
+        var token = new JwtService(properties).generateToken(principal());
+
+        var chain = new MockFilterChain();
+        filter(properties).doFilter(request(token), new MockHttpServletResponse(), chain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(EMAIL, authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("USER")), List.copyOf(authentication.getAuthorities()));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_shouldLoadUserForTokensWithoutPermissions() throws Exception {
+        var properties = properties(true);
+        var token = new JwtService(properties).generateToken(Map.of(), principal());
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(principal());
+
+        filter(properties).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(EMAIL, SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(userDetailsService).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void doFilter_shouldRejectRevokedToken() throws Exception {
+        var properties = properties(true);
+        var token = new JwtService(properties).generateToken(principal());
+        when(accessTokenDenylist.isRevoked(eq(EMAIL), any())).thenReturn(true);
+        when(messageSource.getMessage(eq("token.revoked"), any(), any(), any())).thenReturn("revoked");
+
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter(properties).doFilter(request(token), response, chain);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private JwtAuthenticationFilter filter(JwtProperties properties) {
+        return new JwtAuthenticationFilter(
+            new ClaimsExtractorService(
+                properties,
+                new ApplicationConfig.ClaimsCache(true, 100),
+                new SimpleMeterRegistry()
+            ),
+            accessTokenDenylist,
+            properties,
+            userDetailsService,
+            messageSource,
+            new ObjectMapper()
+        );
+    }
+
+    private static JwtProperties properties(boolean stateless) {
+        return new JwtProperties(SECRET, Duration.ofMinutes(5), Duration.ofDays(1), stateless);
+    }
+
+    private static UserPrincipal principal() {
+        return new UserPrincipal(1L, EMAIL, "hash", List.of(new SimpleGrantedAuthority("USER")));
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        var request = new MockHttpServletRequest("GET", "/api/v1/documents");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
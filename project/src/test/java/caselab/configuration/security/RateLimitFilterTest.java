@@ -0,0 +1,153 @@
+package caselab.configuration.security;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.ratelimit.LocalProxyManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+
+    private static final String FIRST_USER = "first@example.com";
+    private static final String SECOND_USER = "second@example.com";
+    private static final String DOCUMENTS = "/api/v1/documents-facade/";
+
+    @Mock
+    private MessageSource messageSource;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        var rateLimit = new ApplicationConfig.RateLimit(
+            true,
+            ApplicationConfig.RateLimit.Store.LOCAL,
+            1000,
+            Duration.ofMinutes(10),
+            100,
+            List.of(
+                new ApplicationConfig.RateLimit.Tier(
+                    "upload", List.of("/api/v1/**"), null, true, 1, Duration.ofMinutes(1)),
+                new ApplicationConfig.RateLimit.Tier(
+                    "default", List.of("/**"), null, false, 2, Duration.ofMinutes(1))
+            )
+        );
+        lenient().when(messageSource.getMessage(any(), any(), any(), any())).thenReturn("exceeded");
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(
+            rateLimit,
+            new LocalProxyManager(rateLimit.localMaximumSize(), Duration.ofMinutes(1)),
+            messageSource,
+            new ObjectMapper(),
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldRejectRequestsOverTierCapacity() throws Exception {
+        authenticate(FIRST_USER);
+
+        assertEquals(HttpStatus.OK.value(), perform(get(DOCUMENTS)).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform(get(DOCUMENTS)).getStatus());
+        var rejected = perform(get(DOCUMENTS));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(1.0, meterRegistry.get("rate_limit.rejected").tag("tier", "default").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldKeepSeparateBucketsPerUser() throws Exception {
+        authenticate(FIRST_USER);
+        perform(get(DOCUMENTS));
+        perform(get(DOCUMENTS));
+
+        authenticate(SECOND_USER);
+        var response = perform(get(DOCUMENTS));
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("1", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void doFilter_shouldApplyUploadTierToMultipartRequests() throws Exception {
+        authenticate(FIRST_USER);
+        var upload = request("POST", DOCUMENTS);
+        upload.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=test");
+
+        assertEquals(HttpStatus.OK.value(), perform(upload).getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform(upload).getStatus());
+        // Чтение идет в другой тариф и не тратит лимит загрузок
+        assertEquals(HttpStatus.OK.value(), perform(get(DOCUMENTS)).getStatus());
+    }
+
+    @Test
+    void doFilter_shouldUseRemoteAddressForAnonymousRequests() throws Exception {
+        var first = get("/api/v1/auth/authenticate");
+        first.setRemoteAddr("10.0.0.1");
+        var second = get("/api/v1/auth/authenticate");
+        second.setRemoteAddr("10.0.0.2");
+
+        perform(first);
+        perform(first);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform(first).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform(second).getStatus());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == HttpStatus.OK.value()) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return request("GET", uri);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        var request = new MockHttpServletRequest(method, uri);
+        request.setServletPath(uri);
+        return request;
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
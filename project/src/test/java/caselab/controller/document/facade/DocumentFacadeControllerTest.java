@@ -0,0 +1,80 @@
+package caselab.controller.document.facade;
+
+import caselab.controller.BaseControllerTest;
+import caselab.controller.secutiry.payload.AuthenticationRequest;
+import caselab.controller.secutiry.payload.AuthenticationResponse;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class DocumentFacadeControllerTest extends BaseControllerTest {
+
+    private static final String SCROLL_URI = "/api/v1/documents-facade/scroll";
+
+    private String adminToken;
+
+    @SneakyThrows
+    private String login(String email, String password) {
+        var request = AuthenticationRequest.builder()
+            .email(email)
+            .password(password)
+            .build();
+
+        var mvcResponse = mockMvc.perform(post("/api/v1/auth/authenticate")
+                .content(objectMapper.writeValueAsString(request))
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        return objectMapper.readValue(
+            mvcResponse.getResponse().getContentAsString(),
+            AuthenticationResponse.class
+        ).accessToken();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        adminToken = login("admin@gmail.com", "admin321@&123");
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Should scroll documents with page size in range")
+    public void shouldScrollDocuments() {
+        mockMvc.perform(get(SCROLL_URI)
+                .param("pageSize", "1")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpectAll(
+                status().isOk(),
+                jsonPath("$.content").isArray(),
+                jsonPath("$.has_next").isBoolean()
+            );
+    }
+
+    @ParameterizedTest
+    @SneakyThrows
+    @ValueSource(strings = {"0", "-1", "101"})
+    @DisplayName("Should return 400 for page size out of range in scroll documents")
+    public void shouldReturn400ForInvalidPageSize(String pageSize) {
+        mockMvc.perform(get(SCROLL_URI)
+                .param("pageSize", pageSize)
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Should return 403 for unauthorized access to scroll documents")
+    public void shouldReturn403ForUnauthorizedAccess() {
+        mockMvc.perform(get(SCROLL_URI))
+            .andExpect(status().isForbidden());
+    }
+}
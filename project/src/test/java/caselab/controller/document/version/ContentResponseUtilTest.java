@@ -0,0 +1,108 @@
+package caselab.controller.document.version;
+
+import caselab.domain.storage.StoredObject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ContentResponseUtilTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final StoredObject OBJECT = new StoredObject(
+        "file.txt", CONTENT.length, "text/plain", "abc", Instant.parse("2024-10-01T00:00:00Z")
+    );
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/versions/content/1");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void toResponse_shouldReturnWholeContentWithHeaders() throws IOException {
+        var result = ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(result.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body(result.getBody())).isEqualTo("0123456789");
+    }
+
+    @Test
+    void toResponse_shouldReturnRequestedRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        var result = ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(result.getHeaders().getContentLength()).isEqualTo(4);
+        assertThat(body(result.getBody())).isEqualTo("2345");
+    }
+
+    @Test
+    void toResponse_shouldIgnoreRangeWithStaleIfRange() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        var result = ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void toResponse_shouldRejectUnsatisfiableRange() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        var result = ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=abc", "bytes=5-2", "items=0-1", "bytes="})
+    void toResponse_shouldIgnoreMalformedRange(String range) throws IOException {
+        request.addHeader(HttpHeaders.RANGE, range);
+
+        var result = ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(body(result.getBody())).isEqualTo("0123456789");
+    }
+
+    @Test
+    void toResponse_shouldReturnNotModifiedForMatchingETag() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+
+        assertNull(ContentResponseUtil.toResponse(OBJECT, webRequest(), this::open));
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, response);
+    }
+
+    private ByteArrayInputStream open(long offset, long length) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, (int) offset, (int) (offset + length)));
+    }
+
+    private String body(StreamingResponseBody body) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
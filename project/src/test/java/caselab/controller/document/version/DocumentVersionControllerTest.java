@@ -0,0 +1,113 @@
+package caselab.controller.document.version;
+
+import caselab.controller.BaseControllerTest;
+import caselab.domain.storage.StoredObject;
+import caselab.service.document.version.DocumentVersionService;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class DocumentVersionControllerTest extends BaseControllerTest {
+
+    private static final String CONTENT_URI = "/api/v1/versions/content/1";
+    private static final String SCROLL_URI = "/api/v1/versions/document/{id}/scroll";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final StoredObject OBJECT = new StoredObject(
+        "file.txt", CONTENT.length, "text/plain", "abc", Instant.parse("2024-10-01T00:00:00Z")
+    );
+
+    @SpyBean
+    private DocumentVersionService documentVersionService;
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = jwtService.generateToken(
+            new UserPrincipal(1L, "admin@gmail.com", null, List.of(new SimpleGrantedAuthority("ADMIN"))));
+        doReturn(OBJECT).when(documentVersionService).getDocumentVersionContentInfo(eq(1L), any());
+        doAnswer(invocation -> {
+            int offset = Math.toIntExact(invocation.<Long>getArgument(1));
+            int length = Math.toIntExact(invocation.<Long>getArgument(2));
+            return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, offset, offset + length));
+        }).when(documentVersionService).getDocumentVersionContent(eq(OBJECT), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Содержимое версии отдается после асинхронной диспетчеризации аутентифицированного запроса")
+    public void getDocumentVersionContent_shouldStreamBodyOnAsyncDispatch() throws Exception {
+        var result = mockMvc.perform(get(CONTENT_URI)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+            .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    @DisplayName("Диапазон содержимого отдается после асинхронной диспетчеризации")
+    public void getDocumentVersionContent_shouldStreamRangeOnAsyncDispatch() throws Exception {
+        var result = mockMvc.perform(get(CONTENT_URI)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void getDocumentVersionContent_shouldRejectAnonymousRequest() throws Exception {
+        mockMvc.perform(get(CONTENT_URI))
+            .andExpect(status().isForbidden());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "101"})
+    public void scrollDocumentVersions_shouldRejectPageSizeOutOfRange(String pageSize) throws Exception {
+        mockMvc.perform(get(SCROLL_URI, Long.MAX_VALUE)
+                .param("pageSize", pageSize)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void scrollDocumentVersions_shouldReturnNotFoundForMissingDocument() throws Exception {
+        mockMvc.perform(get(SCROLL_URI, Long.MAX_VALUE)
+                .param("pageSize", "5")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -288,6 +288,38 @@ public class DocumentTypesControllerTest extends BaseControllerTest {
         );
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Фильтрация типов документов по атрибутам возвращает каждый тип один раз")
+    public void advancedSearchDocumentTypes_byAttributes_success_admin() {
+        // Given
+        var filters = Map.of(
+            "name", List.of((Object) VALID_DOCUMENT_TYPE_NAME),
+            "documentTypesToAttributes.attribute.id", List.of((Object) attributeId),
+            "documentTypesToAttributes.isOptional", List.of((Object) true)
+        );
+        var searchRequest = SearchRequest.builder().filters(filters).build();
+
+        // When
+        var mvcResponse = mockMvc.perform(post(URL + "/advanced_search")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchRequest))
+                .param("pageNum", "0")
+                .param("pageSize", "10")
+                .param("sortStrategy", "asc"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        var response = readPageContent(mvcResponse, DocumentTypeResponse.class);
+
+        assertAll(
+            "Проверка фильтрации типов документов по атрибутам",
+            () -> assertThat(response).hasSize(1),
+            () -> assertThat(response.get(0).id()).isEqualTo(documentTypeId)
+        );
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("Фильтрация типов документов возвращает пустой результат при несоответствии фильтров")
@@ -12,6 +12,8 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -82,6 +84,47 @@ public class ApplicationUserControllerTest extends BaseControllerTest {
             );
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Should scroll users page by page")
+    public void shouldScrollUsers() {
+        var token = login().accessToken();
+
+        var firstPage = mockMvc.perform(get(URL + "/all/scroll")
+                .param("pageSize", "1")
+                .header("Authorization", "Bearer " + token))
+            .andExpectAll(
+                status().isOk(),
+                jsonPath("$.content.length()").value(1),
+                jsonPath("$.has_next").value(true),
+                jsonPath("$.next_cursor", notNullValue())
+            )
+            .andReturn();
+        var cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("next_cursor").asText();
+
+        mockMvc.perform(get(URL + "/all/scroll")
+                .param("pageSize", "1")
+                .param("cursor", cursor)
+                .header("Authorization", "Bearer " + token))
+            .andExpectAll(
+                status().isOk(),
+                jsonPath("$.content.length()").value(1)
+            );
+    }
+
+    @ParameterizedTest
+    @SneakyThrows
+    @ValueSource(strings = {"0", "-1", "101"})
+    @DisplayName("Should return 400 for page size out of range in scroll users")
+    public void shouldReturn400ForInvalidPageSizeInScrollUsers(String pageSize) {
+        var token = login().accessToken();
+
+        mockMvc.perform(get(URL + "/all/scroll")
+                .param("pageSize", pageSize)
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("Should return 403 for unauthorized access to get all users")
@@ -0,0 +1,107 @@
+package caselab.domain;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.regex.Pattern;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// document.latest_version_id и version_count: заполнение существующих данных (changeset 27)
+// и триггер document_version_latest. Последняя версия - первая в порядке created_at DESC, id DESC
+public class DocumentLatestVersionTest extends QueryPlanTest {
+
+    private static final Pattern BACKFILL = Pattern.compile(
+        "--changeset caselab:27\\R.*?(UPDATE document d.*?;)",
+        Pattern.DOTALL
+    );
+
+    private long documentId;
+
+    @BeforeEach
+    public void createDocument() {
+        execute("INSERT INTO document_type (name) VALUES ('latest-version-type')");
+        documentId = queryForLong("""
+            INSERT INTO document (document_type_id, name, status)
+            SELECT id, 'latest-version-document', 'DRAFT' FROM document_type WHERE name = 'latest-version-type'
+            RETURNING id
+            """);
+    }
+
+    @Test
+    @DisplayName("Версия с более ранним created_at не становится последней")
+    public void insert_shouldKeepLaterVersionAsLatest() {
+        long current = insertVersion("now()");
+        insertVersion("now() - interval '1 day'");
+
+        assertThat(latestVersionId()).isEqualTo(current);
+        assertThat(versionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Из версий с одинаковым created_at последней становится версия с большим id")
+    public void insert_shouldBreakCreatedAtTieById() {
+        insertVersion("'2024-10-01T00:00:00Z'");
+        long second = insertVersion("'2024-10-01T00:00:00Z'");
+
+        assertThat(latestVersionId()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("После удаления последней версии последней становится предыдущая")
+    public void delete_shouldFallBackToPreviousVersion() {
+        long previous = insertVersion("now() - interval '1 day'");
+        long latest = insertVersion("now()");
+
+        execute("DELETE FROM document_version WHERE id = " + latest);
+
+        assertThat(latestVersionId()).isEqualTo(previous);
+        assertThat(versionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Заполнение существующих данных выбирает ту же версию, что и триггер")
+    public void backfill_shouldMatchTriggerOrdering() {
+        long latest = insertVersion("'2024-10-02T00:00:00Z'");
+        insertVersion("'2024-10-01T00:00:00Z'");
+        insertVersion("'2024-10-01T00:00:00Z'");
+        execute("UPDATE document SET latest_version_id = NULL, version_count = 0 WHERE id = " + documentId);
+
+        execute(backfillStatement());
+
+        assertThat(latestVersionId()).isEqualTo(latest);
+        assertThat(versionCount()).isEqualTo(3);
+    }
+
+    private long insertVersion(String createdAt) {
+        return queryForLong("""
+            INSERT INTO document_version (name, created_at, document_id)
+            VALUES ('latest-version', %s, %d)
+            RETURNING id
+            """.formatted(createdAt, documentId));
+    }
+
+    private long latestVersionId() {
+        return queryForLong("SELECT latest_version_id FROM document WHERE id = " + documentId);
+    }
+
+    private long versionCount() {
+        return queryForLong("SELECT version_count FROM document WHERE id = " + documentId);
+    }
+
+    private long queryForLong(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    // Запрос берется из changelog, чтобы проверялась именно примененная миграция
+    @SneakyThrows
+    private static String backfillStatement() {
+        var changelog = new File(".").toPath().toAbsolutePath().getParent().getParent()
+            .resolve("migrations/db/changelog/db.changelog-1.3.sql");
+        var matcher = BACKFILL.matcher(Files.readString(changelog));
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+}
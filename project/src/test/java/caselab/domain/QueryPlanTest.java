@@ -0,0 +1,42 @@
+package caselab.domain;
+
+import caselab.Application;
+import jakarta.transaction.Transactional;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Проверки планов запросов, которые строит само приложение.
+// Каждый тест выполняется в транзакции, которая откатывается после теста
+@ActiveProfiles("test")
+@SpringBootTest(classes = Application.class)
+@Import(StatementCapture.class)
+@Transactional
+public abstract class QueryPlanTest extends IntegrationTest {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementCapture statementCapture;
+
+    protected void execute(String sql) {
+        jdbcTemplate.execute(sql);
+    }
+
+    protected String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    // Планы всех запросов, выполненных действием, например вызовом метода репозитория
+    protected String explainQueriesOf(Runnable action) {
+        var statements = statementCapture.capture(action);
+        assertThat(statements).isNotEmpty();
+        return statements.stream()
+            .map(this::explain)
+            .collect(Collectors.joining("\n"));
+    }
+}
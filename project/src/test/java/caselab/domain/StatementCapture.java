@@ -0,0 +1,114 @@
+package caselab.domain;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Записывает SQL, который приложение выполняет через PreparedStatement, с подставленными значениями параметров.
+// Так в EXPLAIN попадают именно те запросы, что строят Hibernate, спецификации и производные методы репозиториев
+public class StatementCapture implements BeanPostProcessor {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean capturing;
+
+    public List<String> capture(Runnable action) {
+        statements.clear();
+        capturing = true;
+        try {
+            action.run();
+        } finally {
+            capturing = false;
+        }
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return capturing(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return capturing(super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    private Connection capturing(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            var result = invoke(connection, method, args);
+            if ("prepareStatement".equals(method.getName()) && result instanceof PreparedStatement statement) {
+                return capturing(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement capturing(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            var name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters.clear();
+            } else if (capturing && name.startsWith("execute")) {
+                statements.add(inline(sql, parameters));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static String inline(String sql, Map<Integer, Object> parameters) {
+        var result = new StringBuilder();
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                result.append(literal(parameters.get(++index)));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package caselab.domain.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalProxyManagerTest {
+
+    private static final int CAPACITY = 5;
+    private static final String KEY = "user:1:default";
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+        .addLimit(Bandwidth.classic(CAPACITY, Refill.intervally(CAPACITY, Duration.ofHours(1))))
+        .build();
+
+    @Test
+    void asyncTryConsume_shouldShareBucketWithSyncApi() {
+        var proxyManager = new LocalProxyManager(100, Duration.ofHours(1));
+
+        long consumed = IntStream.range(0, CAPACITY + 1)
+            .mapToObj(i -> proxyManager.asAsync().builder().build(KEY, CONFIGURATION).tryConsume(1).join())
+            .filter(Boolean::booleanValue)
+            .count();
+
+        assertThat(consumed).isEqualTo(CAPACITY);
+        assertThat(proxyManager.builder().build(KEY, CONFIGURATION).tryConsume(1)).isFalse();
+
+        proxyManager.asAsync().removeProxy(KEY).join();
+        assertThat(proxyManager.getProxyConfiguration(KEY)).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package caselab.domain.ratelimit;
+
+import caselab.Application;
+import caselab.domain.IntegrationTest;
+import caselab.domain.repository.RateLimitBucketRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class)
+public class PostgresProxyManagerTest extends IntegrationTest {
+
+    private static final int CAPACITY = 50;
+    private static final int REQUESTS = 200;
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+        .addLimit(Bandwidth.classic(CAPACITY, Refill.intervally(CAPACITY, Duration.ofHours(1))))
+        .build();
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Узлы с общей таблицей корзин вместе не превышают лимит")
+    public void tryConsume_shouldShareQuotaBetweenNodes() throws Exception {
+        var key = "test:" + UUID.randomUUID();
+        // Два экземпляра имитируют два узла приложения
+        var nodes = List.of(
+            new PostgresProxyManager(rateLimitBucketRepository, transactionTemplate),
+            new PostgresProxyManager(rateLimitBucketRepository, transactionTemplate)
+        );
+
+        List<Callable<Boolean>> requests = IntStream.range(0, REQUESTS)
+            .<Callable<Boolean>>mapToObj(i -> () -> nodes.get(i % nodes.size()).builder()
+                .build(key, CONFIGURATION)
+                .tryConsume(1))
+            .toList();
+
+        long consumed;
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            consumed = executor.invokeAll(requests).stream()
+                .filter(this::isConsumed)
+                .count();
+        }
+
+        assertThat(consumed).isEqualTo(CAPACITY);
+        assertThat(rateLimitBucketRepository.findById(key)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Асинхронная корзина расходует общий лимит так же, как синхронная")
+    public void asyncTryConsume_shouldShareQuotaWithSyncBucket() {
+        var key = "test:" + UUID.randomUUID();
+        var node = new PostgresProxyManager(rateLimitBucketRepository, transactionTemplate);
+
+        long consumed = IntStream.range(0, CAPACITY + 1)
+            .mapToObj(i -> node.asAsync().builder().build(key, CONFIGURATION).tryConsume(1))
+            .map(CompletableFuture::join)
+            .filter(Boolean::booleanValue)
+            .count();
+
+        assertThat(consumed).isEqualTo(CAPACITY);
+        assertThat(node.builder().build(key, CONFIGURATION).getAvailableTokens()).isZero();
+
+        node.asAsync().removeProxy(key).join();
+        assertThat(rateLimitBucketRepository.findById(key)).isEmpty();
+    }
+
+    private boolean isConsumed(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package caselab.domain.repository;
+
+import caselab.domain.QueryPlanTest;
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.DocumentType;
+import caselab.domain.entity.DocumentVersion;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Планы запросов, которые выполняют методы репозиториев, на заполненных таблицах со свежей статистикой
+public class RepositoryIndexUsageTest extends QueryPlanTest {
+
+    private static final int USERS = 2000;
+    private static final int DOCUMENT_TYPES = 200;
+    private static final int DOCUMENTS = 10000;
+    private static final int PAGE_SIZE = 20;
+    private static final int EXPIRED_LIMIT = 100;
+
+    @Autowired
+    private UserToDocumentRepository userToDocumentRepository;
+    @Autowired
+    private DocumentVersionRepository documentVersionRepository;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private SignatureRepository signatureRepository;
+    @Autowired
+    private VotingProcessRepository votingProcessRepository;
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    public void seed() {
+        execute("INSERT INTO document_type (name) SELECT 'plan-type-' || g FROM generate_series(1, %d) g"
+            .formatted(DOCUMENT_TYPES));
+        execute("""
+            INSERT INTO application_user (email, display_name, hashed_password)
+            SELECT 'plan-user-' || g || '@example.com', 'Plan User ' || g, 'hash'
+            FROM generate_series(1, %d) g
+            """.formatted(USERS));
+        execute("""
+            INSERT INTO document (document_type_id, name, status)
+            SELECT t.id, 'plan-document-' || g, 'DRAFT'
+            FROM generate_series(1, %d) g
+            JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM document_type) t
+              ON t.n = g %% (SELECT count(*) FROM document_type)
+            """.formatted(DOCUMENTS));
+        execute("""
+            INSERT INTO document_version (name, created_at, document_id)
+            SELECT 'plan-version', now() - (d.id %% 365) * interval '1 day', d.id FROM document d
+            """);
+        execute("""
+            INSERT INTO user_to_document (document_id, application_user_id)
+            SELECT d.id, u.id
+            FROM (SELECT id, row_number() OVER (ORDER BY id) AS n FROM document) d
+            JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM application_user) u
+              ON u.n = d.n %% (SELECT count(*) FROM application_user)
+            """);
+        execute("""
+            INSERT INTO signature (name, status, sent_at, document_version_id, application_user_id)
+            SELECT 'plan-signature', 'NOT_SIGNED', now(), v.id, utd.application_user_id
+            FROM document_version v JOIN user_to_document utd ON utd.document_id = v.document_id
+            """);
+        execute("""
+            INSERT INTO voting_process (name, threshold, status, created_at, deadline, document_version_id)
+            SELECT 'plan-voting', 0.5, 'ACCEPTED', now(), now(), v.id FROM document_version v
+            """);
+        execute("""
+            INSERT INTO vote (status, application_user_id, voting_process_id)
+            SELECT 'NOT_VOTED', utd.application_user_id, p.id
+            FROM voting_process p
+            JOIN document_version v ON v.id = p.document_version_id
+            JOIN user_to_document utd ON utd.document_id = v.document_id
+            """);
+        execute("""
+            INSERT INTO subscription (document_id, user_email)
+            SELECT utd.document_id, u.email
+            FROM user_to_document utd JOIN application_user u ON u.id = utd.application_user_id
+            """);
+        execute("""
+            INSERT INTO refresh_tokens (token_hash, family_id, expires_date, application_user_id)
+            SELECT md5(u.id::text), gen_random_uuid(), now(), u.id FROM application_user u
+            """);
+        execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("UserToDocumentRepository.findByApplicationUserIdAndDocumentId использует индекс")
+    public void userToDocument_byUserAndDocument() {
+        var userId = idOf("application_user");
+        var documentId = idOf("document");
+
+        var plan = explainQueriesOf(() ->
+            userToDocumentRepository.findByApplicationUserIdAndDocumentId(userId, documentId));
+
+        assertThat(plan).contains("user_to_document_user_document_idx");
+    }
+
+    @Test
+    @DisplayName("DocumentVersionRepository.findByDocumentId использует индекс")
+    public void documentVersion_byDocument() {
+        var documentId = idOf("document");
+        var pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        var plan = explainQueriesOf(() -> documentVersionRepository.findByDocumentId(pageable, documentId));
+
+        assertThat(plan).contains("document_version_document_created_at_idx");
+    }
+
+    @Test
+    @DisplayName("DocumentRepository.findByDocumentType использует индекс")
+    public void document_byDocumentType() {
+        var documentType = DocumentType.builder().id(idOf("document_type")).build();
+
+        var plan = explainQueriesOf(() -> documentRepository.findByDocumentType(documentType));
+
+        assertThat(plan).contains("document_document_type_idx");
+    }
+
+    @Test
+    @DisplayName("SignatureRepository.findByApplicationUserAndDocumentVersion использует индекс")
+    public void signature_byUserAndDocumentVersion() {
+        var user = ApplicationUser.builder().id(idOf("application_user")).build();
+        var documentVersion = DocumentVersion.builder().id(idOf("document_version")).build();
+
+        var plan = explainQueriesOf(() ->
+            signatureRepository.findByApplicationUserAndDocumentVersion(user, documentVersion));
+
+        assertThat(plan).contains("signature_user_document_version_idx");
+    }
+
+    @Test
+    @DisplayName("VotingProcessRepository.findByDocumentVersion использует индекс")
+    public void votingProcess_byDocumentVersion() {
+        var documentVersion = DocumentVersion.builder().id(idOf("document_version")).build();
+
+        var plan = explainQueriesOf(() -> votingProcessRepository.findByDocumentVersion(documentVersion));
+
+        assertThat(plan).contains("voting_process_document_version_idx");
+    }
+
+    @Test
+    @DisplayName("VoteRepository.findByApplicationUserIdAndVotingProcessId использует индекс")
+    public void vote_byUserAndVotingProcess() {
+        var userId = idOf("application_user");
+        var votingProcessId = idOf("voting_process");
+
+        var plan = explainQueriesOf(() ->
+            voteRepository.findByApplicationUserIdAndVotingProcessId(userId, votingProcessId));
+
+        assertThat(plan).contains("vote_voting_process_user_idx");
+    }
+
+    @Test
+    @DisplayName("Поиск подписок по документу и по email использует индексы")
+    public void subscription_byDocumentAndByEmail() {
+        var subscription = jdbcTemplate.queryForMap("SELECT document_id, user_email FROM subscription LIMIT 1");
+        var documentId = (Long) subscription.get("document_id");
+        var email = (String) subscription.get("user_email");
+
+        var byDocument = explainQueriesOf(() -> subscriptionRepository.findAllByDocumentId(documentId));
+        var byDocumentAndEmail = explainQueriesOf(() ->
+            subscriptionRepository.existsByDocumentIdAndUserEmail(documentId, email));
+        var byEmail = explainQueriesOf(() -> subscriptionRepository.findAllByUserEmail(email));
+
+        assertThat(byDocument).contains("subscription_document_user_email_idx");
+        assertThat(byDocumentAndEmail).contains("subscription_document_user_email_idx");
+        assertThat(byEmail).contains("subscription_user_email_idx");
+    }
+
+    @Test
+    @DisplayName("Поиск пользователя по email и refresh-токена по хэшу использует уникальные индексы")
+    public void user_byEmail_and_refreshToken_byTokenHash() {
+        var user = explainQueriesOf(() -> applicationUserRepository.findByEmail("plan-user-10@example.com"));
+        var token = explainQueriesOf(() -> refreshTokenRepository.findByTokenHash(
+            jdbcTemplate.queryForObject("SELECT md5('10')", String.class)));
+
+        assertThat(user).contains("application_user_email_uidx");
+        assertThat(token).contains("refresh_tokens_token_hash_uidx");
+    }
+
+    @Test
+    @DisplayName("Отзыв семейства и очистка refresh-токенов используют индексы")
+    public void refreshToken_byFamily_and_byExpiresDate() {
+        var familyId = jdbcTemplate.queryForObject("SELECT family_id FROM refresh_tokens LIMIT 1", UUID.class);
+
+        var family = explainQueriesOf(() -> refreshTokenRepository.deleteFamily(familyId));
+        var expired = explainQueriesOf(() ->
+            refreshTokenRepository.deleteExpired(LocalDateTime.now().minusDays(1), EXPIRED_LIMIT));
+
+        assertThat(family).contains("refresh_tokens_family_idx");
+        assertThat(expired).contains("refresh_tokens_expires_date_idx");
+    }
+
+    // Идентификатор строки из середины заполненной таблицы
+    private long idOf(String table) {
+        return jdbcTemplate.queryForObject("SELECT id FROM %s ORDER BY id LIMIT 1 OFFSET 10".formatted(table), Long.class);
+    }
+}
@@ -0,0 +1,92 @@
+package caselab.domain.search;
+
+import caselab.domain.QueryPlanTest;
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.Document;
+import caselab.domain.entity.search.DocumentSpecifications;
+import caselab.domain.entity.search.FilterCondition;
+import caselab.domain.entity.search.FilterOperator;
+import caselab.domain.entity.search.GenericSpecifications;
+import caselab.domain.repository.ApplicationUserRepository;
+import caselab.domain.repository.DocumentRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Планы запросов, которые GenericSpecifications и DocumentSpecifications строят для операторов фильтров.
+// Последовательное сканирование отключено: на пустых таблицах оно всегда дешевле,
+// а проверяется именно то, что условие может использовать индекс
+public class FilterIndexUsageTest extends QueryPlanTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+
+    @BeforeEach
+    public void setUp() {
+        execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    @DisplayName("STARTS_WITH по названию документа использует индекс")
+    public void startsWith_usesNameIndex() {
+        var plan = explainDocumentSearch(condition("name", FilterOperator.STARTS_WITH, "Договор"));
+
+        assertThat(plan).containsAnyOf("document_name_pattern_idx", "document_name_trgm_idx");
+    }
+
+    @Test
+    @DisplayName("CONTAINS по названию документа использует триграммный индекс")
+    public void contains_usesTrigramIndex() {
+        var plan = explainDocumentSearch(condition("name", FilterOperator.CONTAINS, "оговор"));
+
+        assertThat(plan).contains("document_name_trgm_idx");
+    }
+
+    @Test
+    @DisplayName("Диапазон по дате версии использует индекс по created_at")
+    public void range_onVersionCreatedAt_usesIndex() {
+        var plan = explainDocumentSearch(new FilterCondition(
+            "documentVersions.createdAt",
+            FilterOperator.BETWEEN,
+            List.of("2024-11-01T00:00:00Z", "2024-11-08T00:00:00Z")
+        ));
+
+        assertThat(plan).containsAnyOf("document_version_created_at_idx", "document_version_document_created_at_idx");
+    }
+
+    @Test
+    @DisplayName("Префикс email пользователя использует индекс")
+    public void startsWith_usesEmailIndex() {
+        Specification<ApplicationUser> specification =
+            GenericSpecifications.filterBy(null, List.of(condition("email", FilterOperator.STARTS_WITH, "user")));
+
+        var plan = explainQueriesOf(() -> applicationUserRepository.findAll(specification));
+
+        assertThat(plan).contains("application_user_email_pattern_idx");
+    }
+
+    @Test
+    @DisplayName("Проверка доступа пользователя к документам использует индекс user_to_document")
+    public void accessibleBy_usesUserToDocumentIndex() {
+        var user = ApplicationUser.builder().id(1L).build();
+
+        var plan = explainQueriesOf(() -> documentRepository.findAll(DocumentSpecifications.accessibleBy(user)));
+
+        assertThat(plan).contains("user_to_document_user_document_idx");
+    }
+
+    private String explainDocumentSearch(FilterCondition condition) {
+        Specification<Document> specification = GenericSpecifications.filterBy(null, List.of(condition));
+        return explainQueriesOf(() -> documentRepository.findAll(specification));
+    }
+
+    private static FilterCondition condition(String field, FilterOperator operator, Object value) {
+        return new FilterCondition(field, operator, List.of(value));
+    }
+}
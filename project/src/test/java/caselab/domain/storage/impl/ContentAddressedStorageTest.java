@@ -0,0 +1,108 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.repository.StoredContentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ContentAddressedStorageTest {
+
+    // SHA-256 строки "content"
+    private static final String HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+    private static final String NAME = HASH + ".pdf";
+
+    @Mock
+    private DocumentVersionStorage objectStorage;
+    @Mock
+    private StoredContentRepository storedContentRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContentAddressedStorage storage;
+    private MockMultipartFile file;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ContentAddressedStorage(
+            objectStorage,
+            storedContentRepository,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            Runnable::run
+        );
+        file = new MockMultipartFile("file", "report.pdf", "application/pdf", "content".getBytes());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void put_shouldUploadNewContentUnderItsHash() {
+        when(storedContentRepository.register(NAME, file.getSize())).thenReturn(true);
+
+        assertEquals(NAME, storage.put(file));
+        verify(objectStorage).put(file, NAME);
+        verify(objectStorage, never()).exists(any());
+    }
+
+    @Test
+    void put_shouldSkipTransferForStoredContent() {
+        when(storedContentRepository.register(NAME, file.getSize())).thenReturn(false);
+        when(objectStorage.exists(NAME)).thenReturn(true);
+
+        assertEquals(NAME, storage.put(file));
+        verify(objectStorage, never()).put(any(), any());
+    }
+
+    @Test
+    void put_shouldUploadRegisteredContentMissingFromStorage() {
+        when(storedContentRepository.register(NAME, file.getSize())).thenReturn(false);
+        when(objectStorage.exists(NAME)).thenReturn(false);
+
+        assertEquals(NAME, storage.put(file));
+        verify(objectStorage).put(file, NAME);
+    }
+
+    @Test
+    void put_shouldRegisterContentAgainAfterRollback() {
+        when(storedContentRepository.register(NAME, file.getSize())).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.put(file);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(storedContentRepository, times(2)).register(NAME, file.getSize());
+    }
+
+    @Test
+    void put_shouldNotRegisterContentAgainAfterCommit() {
+        when(storedContentRepository.register(NAME, file.getSize())).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.put(file);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(storedContentRepository, times(1)).register(NAME, file.getSize());
+    }
+}
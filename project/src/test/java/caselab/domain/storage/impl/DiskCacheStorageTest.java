@@ -0,0 +1,155 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.storage.FileStorage;
+import caselab.domain.storage.StoredObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DiskCacheStorageTest {
+
+    private static final String FIRST = "first.pdf";
+    private static final String SECOND = "second.pdf";
+    private static final String CONTENT = "0123456789";
+
+    @Mock
+    private FileStorage delegate;
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DiskCacheStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        storage = new DiskCacheStorage(
+            delegate,
+            directory,
+            DataSize.ofBytes(15),
+            DataSize.ofBytes(10),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromDisk() {
+        when(delegate.stat(FIRST)).thenReturn(storedObject(FIRST, "etag"));
+        when(delegate.get(FIRST)).thenAnswer(invocation -> stream());
+
+        assertEquals(CONTENT, read(storage.get(FIRST)));
+        assertEquals("345", read(storage.get(FIRST, 3, 3)));
+
+        verify(delegate, times(1)).get(FIRST);
+        assertEquals(1, meterRegistry.get("storage.cache.hits").counter().count());
+        assertEquals(1, meterRegistry.get("storage.cache.misses").counter().count());
+    }
+
+    @Test
+    void stat_shouldInvalidateEntryWithChangedEtag() {
+        when(delegate.stat(FIRST))
+            .thenReturn(storedObject(FIRST, "old"))
+            .thenReturn(storedObject(FIRST, "new"));
+        when(delegate.get(FIRST)).thenAnswer(invocation -> stream());
+
+        read(storage.get(FIRST));
+        storage.stat(FIRST);
+        read(storage.get(FIRST));
+
+        verify(delegate, times(2)).get(FIRST);
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedEntry() {
+        when(delegate.stat(FIRST)).thenReturn(storedObject(FIRST, "etag"));
+        when(delegate.stat(SECOND)).thenReturn(storedObject(SECOND, "etag"));
+        when(delegate.get(FIRST)).thenAnswer(invocation -> stream());
+        when(delegate.get(SECOND)).thenAnswer(invocation -> stream());
+
+        read(storage.get(FIRST));
+        read(storage.get(SECOND));
+        read(storage.get(FIRST));
+
+        verify(delegate, times(2)).get(FIRST);
+        assertEquals(10, meterRegistry.get("storage.cache.size").gauge().value());
+    }
+
+    @Test
+    void get_shouldServeRangeMissFromDelegateAndCacheInBackground() {
+        var object = storedObject(FIRST, "etag");
+        var storage = storage(Runnable::run);
+        when(delegate.get(FIRST, 3, 3)).thenAnswer(invocation -> new ByteArrayInputStream("345".getBytes()));
+        when(delegate.get(FIRST)).thenAnswer(invocation -> stream());
+
+        assertEquals("345", read(storage.get(object, 3, 3)));
+        assertEquals("6789", read(storage.get(object, 6, 4)));
+
+        verify(delegate, times(1)).get(FIRST, 3, 3);
+        verify(delegate, times(1)).get(FIRST);
+        verify(delegate, never()).stat(FIRST);
+    }
+
+    @Test
+    void get_shouldLoadObjectOnceForConcurrentMisses() {
+        var object = storedObject(FIRST, "etag");
+        List<Runnable> tasks = new ArrayList<>();
+        var storage = storage(tasks::add);
+        when(delegate.get(eq(FIRST), anyLong(), anyLong())).thenAnswer(invocation -> stream());
+        when(delegate.get(FIRST)).thenAnswer(invocation -> stream());
+
+        read(storage.get(object, 1, 2));
+        read(storage.get(object, 4, 2));
+        assertEquals(1, tasks.size());
+
+        tasks.getFirst().run();
+        assertEquals(CONTENT, read(storage.get(object, 0, -1)));
+        verify(delegate, times(1)).get(FIRST);
+    }
+
+    private DiskCacheStorage storage(Executor loader) {
+        return new DiskCacheStorage(
+            delegate,
+            directory,
+            DataSize.ofBytes(15),
+            DataSize.ofBytes(10),
+            meterRegistry,
+            loader
+        );
+    }
+
+    private StoredObject storedObject(String name, String etag) {
+        return new StoredObject(name, CONTENT.length(), "application/pdf", etag, Instant.EPOCH);
+    }
+
+    private InputStream stream() {
+        return new ByteArrayInputStream(CONTENT.getBytes());
+    }
+
+    @SneakyThrows
+    private String read(InputStream inputStream) {
+        try (inputStream) {
+            return new String(inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package caselab.domain.storage.impl;
+
+import caselab.domain.storage.exception.DocumentStorageException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.MinioClient;
+import io.minio.messages.Part;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MinioMultipartUploaderTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String OBJECT = "object.pdf";
+    private static final String UPLOAD_ID = "upload";
+
+    @Mock
+    private MinioClient minioClient;
+    @Mock
+    private MultipartMinioClient multipartClient;
+
+    private MinioMultipartUploader uploader;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uploader = new MinioMultipartUploader(minioClient, multipartClient, DataSize.ofMegabytes(5), 2, meterRegistry);
+    }
+
+    @Test
+    @SneakyThrows
+    void upload_shouldSendPartsAndReturnChecksum() {
+        byte[] content = randomBytes(DataSize.ofMegabytes(11).toBytes());
+        when(multipartClient.createMultipartUpload(BUCKET, OBJECT, "application/pdf"))
+            .thenReturn(CompletableFuture.completedFuture(UPLOAD_ID));
+        when(multipartClient.uploadPart(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), anyInt(), any(), anyInt()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                new Part(invocation.getArgument(3), "etag" + invocation.getArgument(3))
+            ));
+        when(multipartClient.completeMultipartUpload(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        String checksum = uploader.upload(new MockMultipartFile("file", OBJECT, "application/pdf", content),
+            BUCKET, OBJECT);
+
+        ArgumentCaptor<Part[]> parts = ArgumentCaptor.forClass(Part[].class);
+        verify(multipartClient).completeMultipartUpload(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), parts.capture());
+        assertEquals(3, parts.getValue().length);
+        assertEquals(sha256(content), checksum);
+        assertEquals(1, meterRegistry.get("storage.upload").tag("mode", "multipart").timer().count());
+    }
+
+    @Test
+    @SneakyThrows
+    void upload_shouldAbortWhenPartFails() {
+        byte[] content = randomBytes(DataSize.ofMegabytes(6).toBytes());
+        when(multipartClient.createMultipartUpload(eq(BUCKET), eq(OBJECT), any()))
+            .thenReturn(CompletableFuture.completedFuture(UPLOAD_ID));
+        when(multipartClient.uploadPart(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), anyInt(), any(), anyInt()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("part failed")));
+        when(multipartClient.abortMultipartUpload(BUCKET, OBJECT, UPLOAD_ID))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        var file = new MockMultipartFile("file", OBJECT, null, content);
+        assertThrows(DocumentStorageException.class, () -> uploader.upload(file, BUCKET, OBJECT));
+
+        verify(multipartClient, times(1)).abortMultipartUpload(BUCKET, OBJECT, UPLOAD_ID);
+        verify(multipartClient, never()).completeMultipartUpload(any(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("storage.upload.failures").counter().count());
+    }
+
+    private byte[] randomBytes(long size) {
+        byte[] bytes = new byte[(int) size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @SneakyThrows
+    private String sha256(byte[] content) {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -9,6 +9,7 @@ import caselab.domain.repository.ApplicationUserRepository;
 import caselab.domain.repository.AttributeRepository;
 import caselab.exception.PermissionDeniedException;
 import caselab.exception.entity.not_found.AttributeNotFoundException;
+import caselab.service.types.DocumentTypeSchemaCache;
 import caselab.service.users.ApplicationUserService;
 import caselab.service.util.PageUtil;
 import java.util.List;
@@ -46,6 +47,8 @@ public class AttributeServiceTest {
     @Mock
     private UserUtilService userUtilService;
     @Mock
+    private DocumentTypeSchemaCache documentTypeSchemaCache;
+    @Mock
     private ApplicationUserRepository userRepository;
 
     @Test
@@ -209,6 +212,8 @@ public class AttributeServiceTest {
 
         Authentication authentication = Mockito.mock(Authentication.class);
         attributeService.deleteAttribute(1L, authentication);
+
+        Mockito.verify(documentTypeSchemaCache).invalidate();
     }
 
     @Test
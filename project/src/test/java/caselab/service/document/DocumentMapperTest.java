@@ -83,6 +83,7 @@ public class DocumentMapperTest extends IntegrationTest {
             .name("Test Document")
             .documentType(documentType)
             .documentVersions(List.of(documentVersion))
+            .latestVersion(documentVersion)
             .usersToDocuments(List.of(userToDocument))
             .build();
 
@@ -98,6 +99,7 @@ public class DocumentMapperTest extends IntegrationTest {
             () -> assertNotNull(response.documentVersionIds()),
             () -> assertEquals(1, response.documentVersionIds().size()),
             () -> assertEquals(101L, response.documentVersionIds().get(0)),
+            () -> assertEquals(101L, response.latestVersionId()),
             () -> assertNotNull(response.usersPermissions()),
             () -> assertEquals(1, response.usersPermissions().size())
         );
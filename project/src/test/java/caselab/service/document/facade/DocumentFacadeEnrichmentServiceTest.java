@@ -0,0 +1,120 @@
+package caselab.service.document.facade;
+
+import caselab.Application;
+import caselab.domain.IntegrationTest;
+import caselab.domain.StatementCapture;
+import caselab.domain.repository.ApplicationUserRepository;
+import caselab.domain.repository.DocumentRepository;
+import caselab.service.document.mapper.DocumentMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Число запросов при дополнении страницы документов не должно расти вместе с размером страницы
+@ActiveProfiles("test")
+@SpringBootTest(classes = Application.class)
+@Import(StatementCapture.class)
+@Transactional
+public class DocumentFacadeEnrichmentServiceTest extends IntegrationTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String EMAIL = "enrichment@example.com";
+
+    @Autowired
+    private DocumentFacadeEnrichmentService enrichmentService;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+    @Autowired
+    private DocumentMapper documentMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementCapture statementCapture;
+
+    private List<Long> documentIds;
+
+    // У каждого документа одна версия, у пользователя есть доступ на чтение и подпись на эту версию
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.execute("INSERT INTO document_type (name) VALUES ('enrichment-type')");
+        jdbcTemplate.update("""
+            INSERT INTO application_user (email, display_name, hashed_password)
+            VALUES (?, 'Enrichment User', 'hash')
+            """, EMAIL);
+        documentIds = jdbcTemplate.queryForList("""
+            INSERT INTO document (document_type_id, name, status)
+            SELECT t.id, 'enrichment-document-' || g, 'DRAFT'
+            FROM generate_series(1, ?) g, document_type t
+            WHERE t.name = 'enrichment-type'
+            RETURNING id
+            """, Long.class, PAGE_SIZE);
+        jdbcTemplate.update("""
+            INSERT INTO document_version (name, created_at, document_id)
+            SELECT 'enrichment-version', now(), id FROM document WHERE name LIKE 'enrichment-document-%'
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO user_to_document (document_id, application_user_id)
+            SELECT d.id, u.id FROM document d, application_user u
+            WHERE d.name LIKE 'enrichment-document-%' AND u.email = ?
+            """, EMAIL);
+        jdbcTemplate.update("""
+            INSERT INTO document_permissions (user_to_document_id, document_permission_id)
+            SELECT utd.id, p.id FROM user_to_document utd, document_permission p, application_user u
+            WHERE utd.application_user_id = u.id AND u.email = ? AND p.name = 'READ'
+            """, EMAIL);
+        jdbcTemplate.update("""
+            INSERT INTO signature (name, status, sent_at, document_version_id, application_user_id)
+            SELECT 'enrichment-signature', 'NOT_SIGNED', now(), v.id, u.id
+            FROM document_version v JOIN document d ON d.id = v.document_id, application_user u
+            WHERE d.name LIKE 'enrichment-document-%' AND u.email = ?
+            """, EMAIL);
+    }
+
+    @AfterEach
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Число запросов не зависит от размера страницы")
+    public void enrich_shouldNotQueryPerDocument() {
+        var singleDocument = countQueries(documentIds.subList(0, 1));
+        var fullPage = countQueries(documentIds);
+
+        assertThat(fullPage).isEqualTo(singleDocument);
+    }
+
+    private int countQueries(List<Long> ids) {
+        var user = applicationUserRepository.findByEmail(EMAIL).orElseThrow();
+        var documents = documentRepository.findAllById(ids).stream()
+            .map(documentMapper::entityToResponse)
+            .toList();
+        // Каждая страница загружается в новом HTTP-запросе с пустыми контекстом персистентности и снимком разрешений
+        entityManager.clear();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        var statements = statementCapture.capture(() -> {
+            var responses = enrichmentService.enrich(documents, user);
+            assertThat(responses).hasSize(ids.size())
+                .allSatisfy(response -> assertThat(response.getSignatureResponse()).isNotNull());
+        });
+        return statements.size();
+    }
+}
@@ -0,0 +1,117 @@
+package caselab.service.document.version;
+
+import caselab.Application;
+import caselab.controller.document.version.payload.AttributeValueRequest;
+import caselab.controller.document.version.payload.CreateDocumentVersionRequest;
+import caselab.domain.IntegrationTest;
+import caselab.domain.repository.ApplicationUserRepository;
+import java.util.List;
+import java.util.stream.LongStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Скорость создания версий документа с большим числом атрибутов.
+// Каждая версия создается в отдельной транзакции сервиса, как при обращении через API,
+// поэтому данные фиксируются в общей базе и удаляются после теста
+@Slf4j
+@SpringBootTest(classes = Application.class)
+public class DocumentVersionCreationBenchmarkTest extends IntegrationTest {
+
+    private static final int ATTRIBUTES = 60;
+    private static final int WARMUP_VERSIONS = 20;
+    private static final int MEASURED_VERSIONS = 200;
+
+    @Autowired
+    private DocumentVersionService documentVersionService;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long documentTypeId;
+    private Long documentId;
+    private List<Long> attributeIds;
+
+    @BeforeEach
+    public void seed() {
+        userId = insert("""
+            INSERT INTO application_user (email, display_name, hashed_password)
+            VALUES ('benchmark-' || gen_random_uuid() || '@example.com', 'Benchmark', 'hash') RETURNING id
+            """);
+        documentTypeId = insert("INSERT INTO document_type (name) VALUES ('benchmark-type') RETURNING id");
+        attributeIds = jdbcTemplate.queryForList("""
+            INSERT INTO attribute (name, type)
+            SELECT 'benchmark-attribute-' || g, 'text' FROM generate_series(1, ?) g RETURNING id
+            """, Long.class, ATTRIBUTES);
+        attributeIds.forEach(attributeId -> jdbcTemplate.update(
+            "INSERT INTO document_type_to_attribute (document_type_id, attribute_id, is_optional) VALUES (?, ?, false)",
+            documentTypeId, attributeId
+        ));
+        documentId = insert("""
+            INSERT INTO document (document_type_id, name, status) VALUES (%d, 'benchmark-document', 'DRAFT')
+            RETURNING id
+            """.formatted(documentTypeId));
+        var userToDocumentId = insert("""
+            INSERT INTO user_to_document (document_id, application_user_id) VALUES (%d, %d) RETURNING id
+            """.formatted(documentId, userId));
+        jdbcTemplate.update("""
+            INSERT INTO document_permissions (user_to_document_id, document_permission_id)
+            SELECT ?, id FROM document_permission WHERE name = 'CREATOR'
+            """, userToDocumentId);
+    }
+
+    // Версии, значения атрибутов и права на документ удаляются каскадно вместе с документом
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM document WHERE id = ?", documentId);
+        jdbcTemplate.update("DELETE FROM document_type WHERE id = ?", documentTypeId);
+        jdbcTemplate.update("DELETE FROM attribute WHERE id = ANY(?)", (Object) attributeIds.toArray(Long[]::new));
+        jdbcTemplate.update("DELETE FROM application_user WHERE id = ?", userId);
+    }
+
+    @Test
+    @DisplayName("Создание версий с атрибутами: версий в секунду")
+    public void createDocumentVersions_throughput() {
+        var user = applicationUserRepository.findById(userId).orElseThrow();
+        var request = new CreateDocumentVersionRequest(
+            documentId,
+            attributeIds.stream()
+                .map(attributeId -> new AttributeValueRequest(attributeId, "value-" + attributeId))
+                .toList()
+        );
+
+        LongStream.range(0, WARMUP_VERSIONS)
+            .forEach(i -> documentVersionService.createDocumentVersion(request, null, user));
+
+        long start = System.nanoTime();
+        LongStream.range(0, MEASURED_VERSIONS)
+            .forEach(i -> documentVersionService.createDocumentVersion(request, null, user));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Document versions: {} with {} attributes in {} s, {} versions/s",
+            MEASURED_VERSIONS, ATTRIBUTES, seconds, Math.round(MEASURED_VERSIONS / seconds));
+
+        int total = WARMUP_VERSIONS + MEASURED_VERSIONS;
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT version_count FROM document WHERE id = ?", Integer.class, documentId
+        )).isEqualTo(total);
+        assertThat(jdbcTemplate.queryForObject("""
+            SELECT count(*) FROM document_attribute_value av
+            JOIN document_version v ON v.id = av.document_version_id
+            WHERE v.document_id = ?
+            """, Integer.class, documentId
+        )).isEqualTo(total * ATTRIBUTES);
+    }
+
+    private Long insert(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -26,6 +26,7 @@ import caselab.exception.document.version.MissingDocumentPermissionException;
 import caselab.exception.entity.not_found.AttributeNotFoundException;
 import caselab.exception.entity.not_found.DocumentVersionNotFoundException;
 import caselab.service.document.version.mapper.DocumentVersionMapper;
+import caselab.service.types.DocumentTypeSchemaCache;
 import caselab.service.util.DocumentUtilService;
 import caselab.service.util.UserUtilService;
 import java.time.OffsetDateTime;
@@ -70,6 +71,8 @@ public class DocumentVersionServiceTest {
     private DocumentVersionMapper documentVersionMapper;
     @Mock
     private FileStorage documentVersionStorage;
+    @Mock
+    private DocumentTypeSchemaCache documentTypeSchemaCache;
 
     private DocumentType documentType;
     private Document document;
@@ -280,8 +283,8 @@ public class DocumentVersionServiceTest {
     public void getDocumentVersionById_unauthorized() {
         Mockito.when(userUtilService.findUserByAuthentication(Mockito.any())).thenReturn(stranger);
         Mockito.when(documentVersionRepository.findById(Mockito.any())).thenReturn(Optional.of(documentVersion));
-        Mockito.when(userToDocumentRepository.findByApplicationUserIdAndDocumentId(Mockito.any(), Mockito.any()))
-            .thenReturn(Optional.empty());
+        Mockito.doThrow(new MissingDocumentPermissionException("Any")).when(documentUtilService)
+            .assertHasPermission(Mockito.eq(stranger), Mockito.eq(document), Mockito.any(), Mockito.eq("Any"));
 
         assertThrows(MissingDocumentPermissionException.class, () -> service.getDocumentVersionById(
             1L,
@@ -293,8 +296,6 @@ public class DocumentVersionServiceTest {
     public void getDocumentVersionById_fullAccess() {
         Mockito.when(userUtilService.findUserByAuthentication(Mockito.any())).thenReturn(creator);
         Mockito.when(documentVersionRepository.findById(Mockito.any())).thenReturn(Optional.of(documentVersion));
-        Mockito.when(userToDocumentRepository.findByApplicationUserIdAndDocumentId(Mockito.any(), Mockito.any()))
-            .thenReturn(Optional.of(creator.getUsersToDocuments().getFirst()));
 
         var response = new DocumentVersionResponse();
         response.setAttributes(List.of());
@@ -0,0 +1,127 @@
+package caselab.service.notification.email;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.EmailOutboxMessage;
+import caselab.domain.entity.enums.EmailOutboxStatus;
+import caselab.domain.repository.EmailOutboxRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+    @Mock
+    private JavaMailSender javaMailSender;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailOutboxDispatcher(
+            emailOutboxRepository,
+            javaMailSender,
+            transactionTemplate,
+            new ApplicationConfig.MailOutbox(Duration.ofSeconds(5), Duration.ofMinutes(2), 10, 1),
+            new ApplicationConfig.Retry(5, 500, 2)
+        );
+    }
+
+    @Test
+    void requestDispatch_shouldSendInOneSessionAndRescheduleFailed() {
+        var delivered = createMessage(1L, "first@example.com");
+        var failed = createMessage(2L, "second@example.com");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(emailOutboxRepository.findReadyForUpdate(any(), anyInt())).thenReturn(List.of(delivered, failed));
+        when(emailOutboxRepository.findAllById(any())).thenReturn(List.of(delivered, failed));
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            MimeMessage second = invocation.getArgument(1);
+            throw new MailSendException(Map.of(second, new IllegalStateException("rejected")));
+        }).when(javaMailSender).send(any(MimeMessage[].class));
+
+        dispatcher.requestDispatch();
+
+        verify(emailOutboxRepository, timeout(2000)).deleteAllInBatch(List.of(delivered));
+        assertEquals(1, failed.getAttempts());
+        assertEquals(EmailOutboxStatus.PENDING, failed.getStatus());
+    }
+
+    @Test
+    void requestDispatch_shouldKeepResultsOfOtherSessionsWhenSessionFails() {
+        dispatcher = new EmailOutboxDispatcher(
+            emailOutboxRepository,
+            javaMailSender,
+            transactionTemplate,
+            new ApplicationConfig.MailOutbox(Duration.ofSeconds(5), Duration.ofMinutes(2), 10, 2),
+            new ApplicationConfig.Retry(5, 500, 2)
+        );
+        var delivered = createMessage(1L, "first@example.com");
+        var failed = createMessage(2L, "second@example.com");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(emailOutboxRepository.findReadyForUpdate(any(), anyInt())).thenReturn(List.of(delivered, failed));
+        when(emailOutboxRepository.findAllById(any())).thenReturn(List.of(delivered, failed));
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            MimeMessage message = invocation.getArgument(0);
+            if (failed.getRecipient().equals(message.getAllRecipients()[0].toString())) {
+                throw new IllegalStateException("session closed");
+            }
+            return null;
+        }).when(javaMailSender).send(any(MimeMessage[].class));
+
+        dispatcher.requestDispatch();
+
+        verify(emailOutboxRepository, timeout(2000)).deleteAllInBatch(List.of(delivered));
+        assertEquals(1, failed.getAttempts());
+        assertEquals("session closed", failed.getLastError());
+    }
+
+    private EmailOutboxMessage createMessage(Long id, String recipient) {
+        return EmailOutboxMessage.builder()
+            .id(id)
+            .sender("sender@example.com")
+            .recipient(recipient)
+            .subject("Subject")
+            .text("Text")
+            .status(EmailOutboxStatus.PENDING)
+            .nextAttemptAt(OffsetDateTime.now())
+            .createdAt(OffsetDateTime.now())
+            .build();
+    }
+}
@@ -1,22 +1,26 @@
 package caselab.service.notification.email;
 
-import jakarta.mail.internet.MimeMessage;
+import caselab.domain.entity.EmailOutboxMessage;
+import caselab.domain.entity.enums.EmailOutboxStatus;
+import caselab.domain.repository.EmailOutboxRepository;
 import java.io.File;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.mail.javamail.JavaMailSender;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 class EmailServiceTest {
 
     @Mock
-    private JavaMailSender javaMailSender;
+    private EmailOutboxRepository emailOutboxRepository;
+    @Mock
+    private EmailOutboxDispatcher emailOutboxDispatcher;
 
     @InjectMocks
     private EmailService emailService;
@@ -27,7 +31,7 @@ class EmailServiceTest {
     }
 
     @Test
-    void sendNotification_ShouldCreateAndSendEmail() throws Exception {
+    void sendNotification_ShouldQueueEmailAndRequestDispatch() {
         EmailNotificationDetails emailDetails = EmailNotificationDetails.builder()
                 .sender("sender@example.com")
                 .recipient("recipient@example.com")
@@ -36,12 +40,13 @@ class EmailServiceTest {
                 .attachments(Arrays.asList(new File("attachment1.txt"), new File("attachment2.txt")))
                 .build();
 
-        MimeMessage mimeMessage = mock(MimeMessage.class);
-        when(javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
-
         emailService.sendNotification(emailDetails);
 
-        verify(javaMailSender).createMimeMessage();
-        verify(javaMailSender).send(mimeMessage);
+        ArgumentCaptor<EmailOutboxMessage> message = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(message.capture());
+        assertEquals("recipient@example.com", message.getValue().getRecipient());
+        assertEquals(EmailOutboxStatus.PENDING, message.getValue().getStatus());
+        assertEquals(List.of("attachment1.txt", "attachment2.txt"), message.getValue().getAttachments());
+        verify(emailOutboxDispatcher).requestDispatch();
     }
 }
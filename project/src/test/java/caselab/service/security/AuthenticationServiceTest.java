@@ -13,6 +13,7 @@ import caselab.service.notification.email.EmailService;
 import caselab.service.secutiry.AuthenticationService;
 import caselab.service.secutiry.JwtService;
 import caselab.service.secutiry.RefreshTokenService;
+import caselab.service.secutiry.UserPrincipalService;
 import caselab.service.util.UserUtilService;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
@@ -59,6 +60,9 @@ public class AuthenticationServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private UserPrincipalService userPrincipalService;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -79,7 +83,8 @@ public class AuthenticationServiceTest {
         authenticationService.register(registerRequest, any(Authentication.class));
 
         assertAll(
-            () -> verify(appUserRepository).save(any(ApplicationUser.class))
+            () -> verify(appUserRepository).save(any(ApplicationUser.class)),
+            () -> verify(userPrincipalService).evict("test@mail.com")
         );
     }
 
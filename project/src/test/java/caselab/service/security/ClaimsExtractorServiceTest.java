@@ -0,0 +1,78 @@
+package caselab.service.security;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.configuration.security.JwtProperties;
+import caselab.service.secutiry.ClaimsExtractorService;
+import caselab.service.secutiry.JwtService;
+import caselab.service.secutiry.UserPrincipal;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ClaimsExtractorServiceTest {
+
+    private static final String SECRET = "55d731c263e1ddb8e50eec214ccf010207b82cfb415c76976751a12f1f04c2ca";
+    private static final String EMAIL = "user@example.com";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Повторный разбор того же токена возвращает claims из кэша")
+    void extractAllClaims_shouldReuseVerifiedClaims() {
+        var properties = properties(Duration.ofMinutes(5));
+        var service = service(properties);
+        var token = new JwtService(properties).generateToken(principal());
+
+        var first = service.extractAllClaims(token);
+        var second = service.extractAllClaims(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(service.extractEmail(token)).isEqualTo(EMAIL);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Истекший токен не возвращается из кэша")
+    void extractAllClaims_shouldNotServeExpiredClaims() throws InterruptedException {
+        var properties = properties(Duration.ofSeconds(1));
+        var service = service(properties);
+        var token = new JwtService(properties).generateToken(principal());
+
+        assertThat(service.extractAllClaims(token).getSubject()).isEqualTo(EMAIL);
+        Thread.sleep(Duration.ofMillis(1100));
+
+        assertThrows(ExpiredJwtException.class, () -> service.extractAllClaims(token));
+    }
+
+    @Test
+    @DisplayName("Измененный токен проверяется заново и отклоняется")
+    void extractAllClaims_shouldVerifyTamperedToken() {
+        var properties = properties(Duration.ofMinutes(5));
+        var service = service(properties);
+        var token = new JwtService(properties).generateToken(principal());
+        service.extractAllClaims(token);
+
+        var tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> service.extractAllClaims(tampered));
+    }
+
+    private ClaimsExtractorService service(JwtProperties properties) {
+        return new ClaimsExtractorService(properties, new ApplicationConfig.ClaimsCache(true, 100), meterRegistry);
+    }
+
+    private static JwtProperties properties(Duration accessTokenTtl) {
+        return new JwtProperties(SECRET, accessTokenTtl, Duration.ofDays(1), true);
+    }
+
+    private static UserPrincipal principal() {
+        return new UserPrincipal(1L, EMAIL, "hash", List.of(new SimpleGrantedAuthority("USER")));
+    }
+}
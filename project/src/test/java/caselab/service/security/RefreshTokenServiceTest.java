@@ -0,0 +1,127 @@
+package caselab.service.security;
+
+import caselab.configuration.security.JwtProperties;
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.RefreshToken;
+import caselab.domain.repository.ApplicationUserRepository;
+import caselab.domain.repository.RefreshTokenRepository;
+import caselab.exception.RefreshTokenReusedException;
+import caselab.exception.entity.not_found.TokenNotFoundException;
+import caselab.service.secutiry.RefreshTokenService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private ApplicationUserRepository applicationUserRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private ApplicationUser user;
+
+    @BeforeEach
+    void setUp() {
+        var jwtProperties = new JwtProperties("secret", Duration.ofMinutes(5), Duration.ofDays(1), true);
+        refreshTokenService = new RefreshTokenService(
+            jwtProperties, refreshTokenRepository, applicationUserRepository);
+        user = ApplicationUser.builder().id(1L).email(EMAIL).build();
+    }
+
+    @Test
+    @DisplayName("В БД сохраняется хэш токена, а не сам токен")
+    void create_shouldStoreTokenHashInNewFamily() {
+        when(applicationUserRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        var token = refreshTokenService.create(EMAIL);
+
+        var saved = captureSaved();
+        assertThat(saved.getTokenHash()).hasSize(64).isNotEqualTo(token);
+        assertThat(saved.getFamilyId()).isNotNull();
+        assertThat(saved.getExpiresDate()).isAfter(LocalDateTime.now());
+
+        when(refreshTokenRepository.findByTokenHash(saved.getTokenHash())).thenReturn(Optional.of(saved));
+        assertThat(refreshTokenService.getByToken(token)).isSameAs(saved);
+    }
+
+    @Test
+    @DisplayName("Обмен выдает новый токен того же семейства")
+    void rotate_shouldIssueTokenInSameFamily() {
+        var current = token(false);
+        when(refreshTokenRepository.markRotated(current.getId())).thenReturn(1);
+
+        var token = refreshTokenService.rotate(current);
+
+        var saved = captureSaved();
+        assertThat(token).isNotBlank();
+        assertThat(saved.getFamilyId()).isEqualTo(current.getFamilyId());
+        assertThat(saved.getTokenHash()).isNotEqualTo(current.getTokenHash());
+        verify(refreshTokenRepository, never()).deleteFamily(any());
+    }
+
+    @Test
+    @DisplayName("Повторное предъявление использованного токена отзывает семейство")
+    void getByToken_shouldRevokeFamilyOnReuse() {
+        var rotated = token(true);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(rotated));
+
+        assertThrows(RefreshTokenReusedException.class, () -> refreshTokenService.getByToken("reused"));
+
+        verify(refreshTokenRepository).deleteFamily(rotated.getFamilyId());
+    }
+
+    @Test
+    @DisplayName("Токен, обмененный параллельным запросом, отзывает семейство")
+    void rotate_shouldRevokeFamilyWhenAlreadyRotated() {
+        var current = token(false);
+        when(refreshTokenRepository.markRotated(current.getId())).thenReturn(0);
+
+        assertThrows(RefreshTokenReusedException.class, () -> refreshTokenService.rotate(current));
+
+        verify(refreshTokenRepository).deleteFamily(current.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void getByToken_shouldThrowWhenTokenUnknown() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(TokenNotFoundException.class, () -> refreshTokenService.getByToken("unknown"));
+    }
+
+    private RefreshToken token(boolean rotated) {
+        return RefreshToken.builder()
+            .id(10L)
+            .tokenHash("hash")
+            .familyId(UUID.randomUUID())
+            .rotated(rotated)
+            .expiresDate(LocalDateTime.now().plusDays(1))
+            .applicationUser(user)
+            .build();
+    }
+
+    private RefreshToken captureSaved() {
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,115 @@
+package caselab.service.subscription;
+
+import caselab.domain.entity.DocumentEvent;
+import caselab.domain.entity.Subscription;
+import caselab.domain.entity.enums.EventType;
+import caselab.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentEventConsumerTest {
+
+    private static final String DESTINATION = "/queue/notifications";
+    private static final String FIRST_USER = "first@example.com";
+    private static final String SECOND_USER = "second@example.com";
+
+    @Mock
+    private SimpMessagingTemplate brokerMessagingTemplate;
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new DocumentEventConsumer(brokerMessagingTemplate, subscriptionRepository, meterRegistry);
+    }
+
+    @Test
+    void listen_shouldExpandDocumentEventsWithSingleSubscriberQuery() {
+        when(subscriptionRepository.findAllByDocumentIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+            subscription(1L, FIRST_USER),
+            subscription(1L, SECOND_USER),
+            subscription(2L, FIRST_USER)
+        ));
+
+        consumer.listen(List.of(
+            record(0, 1L, null, EventType.SIGNED),
+            record(1, 2L, null, EventType.SIGNED),
+            record(2, 3L, SECOND_USER, EventType.SIGNED)
+        ));
+
+        verify(subscriptionRepository, times(1)).findAllByDocumentIdIn(any());
+        verify(brokerMessagingTemplate, times(2)).convertAndSendToUser(eq(FIRST_USER), eq(DESTINATION), any());
+        verify(brokerMessagingTemplate, times(2)).convertAndSendToUser(eq(SECOND_USER), eq(DESTINATION), any());
+        assertEquals(3, meterRegistry.get("document.events.consume.batch").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("document.events.consume.latency").timer().count());
+    }
+
+    @Test
+    void listen_shouldKeepOrderOfEventsWithSameKey() {
+        consumer.listen(List.of(
+            record(0, 1L, FIRST_USER, EventType.SIGNED),
+            record(1, 1L, FIRST_USER, EventType.UPDATED)
+        ));
+
+        InOrder inOrder = inOrder(brokerMessagingTemplate);
+        inOrder.verify(brokerMessagingTemplate).convertAndSendToUser(
+            eq(FIRST_USER), eq(DESTINATION), argThat(hasEventType(EventType.SIGNED)));
+        inOrder.verify(brokerMessagingTemplate).convertAndSendToUser(
+            eq(FIRST_USER), eq(DESTINATION), argThat(hasEventType(EventType.UPDATED)));
+    }
+
+    private ArgumentMatcher<Object> hasEventType(EventType eventType) {
+        return payload -> payload instanceof DocumentEvent documentEvent && documentEvent.getEventType() == eventType;
+    }
+
+    private ConsumerRecord<String, DocumentEvent> record(
+        long offset,
+        Long documentId,
+        String userEmail,
+        EventType eventType
+    ) {
+        return new ConsumerRecord<>(
+            DocumentEventPublisher.TOPIC,
+            0,
+            offset,
+            System.currentTimeMillis(),
+            TimestampType.CREATE_TIME,
+            ConsumerRecord.NULL_SIZE,
+            ConsumerRecord.NULL_SIZE,
+            String.valueOf(documentId),
+            new DocumentEvent(documentId, userEmail, eventType),
+            new RecordHeaders(),
+            Optional.empty()
+        );
+    }
+
+    private Subscription subscription(Long documentId, String userEmail) {
+        return Subscription.builder().documentId(documentId).userEmail(userEmail).build();
+    }
+}
@@ -0,0 +1,63 @@
+package caselab.service.subscription;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.DocumentEvent;
+import caselab.domain.entity.enums.EventType;
+import caselab.domain.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentEventPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, DocumentEvent> kafkaTemplate;
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Test
+    void publish_shouldSendSingleKeyedEventInConsumerMode() {
+        var publisher = createPublisher(ApplicationConfig.DocumentEvents.FanOut.CONSUMER);
+        when(kafkaTemplate.send(eq(DocumentEventPublisher.TOPIC), eq("1"), any()))
+            .thenReturn(new CompletableFuture<>());
+
+        publisher.publish(1L, EventType.SIGNED);
+
+        verify(kafkaTemplate, times(1)).send(eq(DocumentEventPublisher.TOPIC), eq("1"), any());
+        verify(subscriptionRepository, never()).findUserEmailsByDocumentId(any());
+    }
+
+    @Test
+    void publish_shouldSendEventPerSubscriberWithDocumentKeyInProducerMode() {
+        var publisher = createPublisher(ApplicationConfig.DocumentEvents.FanOut.PRODUCER);
+        when(subscriptionRepository.findUserEmailsByDocumentId(1L))
+            .thenReturn(List.of("first@example.com", "second@example.com"));
+        when(kafkaTemplate.send(eq(DocumentEventPublisher.TOPIC), eq("1"), any()))
+            .thenReturn(new CompletableFuture<>());
+
+        publisher.publish(1L, EventType.SIGNED);
+
+        verify(kafkaTemplate, times(2)).send(eq(DocumentEventPublisher.TOPIC), eq("1"), any());
+    }
+
+    private DocumentEventPublisher createPublisher(ApplicationConfig.DocumentEvents.FanOut fanOut) {
+        return new DocumentEventPublisher(
+            kafkaTemplate,
+            subscriptionRepository,
+            new ApplicationConfig.DocumentEvents(fanOut, 1),
+            new SimpleMeterRegistry()
+        );
+    }
+}
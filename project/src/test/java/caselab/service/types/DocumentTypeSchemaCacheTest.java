@@ -0,0 +1,189 @@
+package caselab.service.types;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.controller.types.payload.DocumentTypeResponse;
+import caselab.domain.entity.Attribute;
+import caselab.domain.entity.DocumentType;
+import caselab.domain.entity.document.type.to.attribute.DocumentTypeToAttribute;
+import caselab.domain.repository.DocumentTypesRepository;
+import caselab.service.types.mapper.DocumentTypeMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentTypeSchemaCacheTest {
+
+    @Mock
+    private DocumentTypesRepository documentTypesRepository;
+    @Mock
+    private DocumentTypeMapper documentTypeMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Сборки, которые еще не запущены, для проверок чтения во время сборки
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private DocumentTypeSchemaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(documentTypeMapper.entityToResponse(any())).thenAnswer(invocation -> {
+            DocumentType type = invocation.getArgument(0);
+            return new DocumentTypeResponse(type.getId(), type.getName(), List.of());
+        });
+        cache = cache(Runnable::run);
+    }
+
+    @Test
+    void find_shouldServeTypesFromSingleLoad() {
+        when(documentTypesRepository.findAllWithAttributes()).thenReturn(List.of(
+            documentType(30L, "third", link(1L, false)),
+            documentType(10L, "first", link(1L, false), link(2L, true), link(3L, false))
+        ));
+
+        var first = cache.find(10L).orElseThrow();
+        var third = cache.find(30L).orElseThrow();
+
+        assertThat(first.response().name()).isEqualTo("first");
+        assertThat(first.mandatoryAttributeIds()).isEqualTo(Set.of(1L, 3L));
+        assertThat(third.response().name()).isEqualTo("third");
+        assertThat(cache.find(20L)).isEmpty();
+        verify(documentTypesRepository, times(1)).findAllWithAttributes();
+    }
+
+    @Test
+    void invalidate_shouldRebuildSnapshotOnNextRead() {
+        when(documentTypesRepository.findAllWithAttributes())
+            .thenReturn(List.of(documentType(10L, "before")))
+            .thenReturn(List.of(documentType(10L, "after"), documentType(11L, "added")));
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("before");
+
+        cache.invalidate();
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("after");
+        assertThat(cache.find(11L)).isPresent();
+        verify(documentTypesRepository, times(2)).findAllWithAttributes();
+    }
+
+    @Test
+    void find_shouldLoadSnapshotInSeparateReadOnlyTransaction() {
+        when(documentTypesRepository.findAllWithAttributes()).thenReturn(List.of(documentType(10L, "first")));
+
+        cache.find(10L);
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                && definition.isReadOnly()));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void invalidate_duringRebuild_shouldLeaveSnapshotStale() {
+        when(documentTypesRepository.findAllWithAttributes())
+            .thenAnswer(invocation -> {
+                // Изменение типа фиксируется, пока снимок собирается из старых данных
+                cache.invalidate();
+                return List.of(documentType(10L, "stale"));
+            })
+            .thenReturn(List.of(documentType(10L, "fresh")));
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("stale");
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("fresh");
+    }
+
+    @Test
+    void find_duringRebuild_shouldServePreviousSnapshot() {
+        when(documentTypesRepository.findAllWithAttributes())
+            .thenReturn(List.of(documentType(10L, "before")))
+            .thenReturn(List.of(documentType(10L, "after")));
+        cache = cache(pendingRefreshes::add);
+        cache.find(10L);
+        runPendingRefreshes();
+
+        cache.invalidate();
+        cache.invalidate();
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("before");
+        assertThat(pendingRefreshes).hasSize(1);
+
+        runPendingRefreshes();
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("after");
+        verify(documentTypesRepository, times(2)).findAllWithAttributes();
+    }
+
+    @Test
+    void find_beforeFirstRebuild_shouldNotWaitForSnapshot() {
+        cache = cache(pendingRefreshes::add);
+
+        assertThat(cache.find(10L)).isEmpty();
+        assertThat(cache.find(10L)).isEmpty();
+
+        assertThat(pendingRefreshes).hasSize(1);
+        verify(documentTypesRepository, never()).findAllWithAttributes();
+    }
+
+    @Test
+    void find_afterFailedRebuild_shouldRetryOnNextRead() {
+        when(documentTypesRepository.findAllWithAttributes())
+            .thenReturn(List.of(documentType(10L, "before")))
+            .thenThrow(new IllegalStateException("connection refused"))
+            .thenReturn(List.of(documentType(10L, "after")));
+        cache.find(10L);
+
+        cache.invalidate();
+
+        assertThat(cache.find(10L).orElseThrow().response().name()).isEqualTo("after");
+        verify(documentTypesRepository, times(3)).findAllWithAttributes();
+    }
+
+    private DocumentTypeSchemaCache cache(Executor refresher) {
+        return new DocumentTypeSchemaCache(
+            documentTypesRepository,
+            documentTypeMapper,
+            transactionManager,
+            new ApplicationConfig.DocumentTypeCache(Duration.ofHours(1)),
+            refresher
+        );
+    }
+
+    private void runPendingRefreshes() {
+        var refreshes = List.copyOf(pendingRefreshes);
+        pendingRefreshes.clear();
+        refreshes.forEach(Runnable::run);
+    }
+
+    private static DocumentType documentType(Long id, String name, DocumentTypeToAttribute... links) {
+        return DocumentType.builder()
+            .id(id)
+            .name(name)
+            .documentTypesToAttributes(List.of(links))
+            .build();
+    }
+
+    private static DocumentTypeToAttribute link(Long attributeId, boolean optional) {
+        return DocumentTypeToAttribute.builder()
+            .attribute(Attribute.builder().id(attributeId).build())
+            .isOptional(optional)
+            .build();
+    }
+}
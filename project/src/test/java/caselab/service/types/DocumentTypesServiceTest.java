@@ -23,6 +23,7 @@ import caselab.service.util.UserUtilService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +44,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -73,6 +75,8 @@ class DocumentTypesServiceTest {
     @Mock
     private UserUtilService userUtilService;
     @Mock
+    private DocumentTypeSchemaCache documentTypeSchemaCache;
+    @Mock
     private Authentication authentication;
     private DocumentTypeRequest request;
     private DocumentType documentType;
@@ -113,6 +117,7 @@ class DocumentTypesServiceTest {
         verify(documentTypeRepository).save(documentType);
         verify(attributeRepository, times(4)).findById(anyLong());
         verify(documentTypeMapper).entityToResponse(documentType);
+        verify(documentTypeSchemaCache).invalidate();
     }
 
     @Test
@@ -137,6 +142,18 @@ class DocumentTypesServiceTest {
         assertThat(result).isEqualTo(response);
     }
 
+    @Test
+    void getDocumentTypeById_shouldServeFromSchemaSnapshot() {
+        when(documentTypeSchemaCache.find(DOCUMENT_TYPE_ID))
+            .thenReturn(Optional.of(new DocumentTypeSchema(response, Set.of(ATTRIBUTE_ID_1))));
+
+        DocumentTypeResponse result = documentTypesService.getDocumentTypeById(DOCUMENT_TYPE_ID);
+
+        assertThat(result).isEqualTo(response);
+        verify(documentTypeRepository, never()).findById(any());
+        verify(documentTypeMapper, never()).entityToResponse(any());
+    }
+
     @Test
     void getAllDocumentTypes_shouldReturnListOfDocumentTypeResponses() {
         Page<DocumentType> documentTypes = new PageImpl<>(List.of(documentType));
@@ -207,6 +224,7 @@ class DocumentTypesServiceTest {
         documentTypesService.deleteDocumentType(DOCUMENT_TYPE_ID, authentication);
 
         verify(documentTypeRepository).delete(documentType);
+        verify(documentTypeSchemaCache).invalidate();
     }
 
     @Test
@@ -7,7 +7,9 @@ import caselab.domain.entity.GlobalPermission;
 import caselab.domain.entity.enums.GlobalPermissionName;
 import caselab.domain.repository.ApplicationUserRepository;
 import caselab.exception.entity.not_found.UserNotFoundException;
+import caselab.service.secutiry.AccessTokenDenylist;
 import caselab.service.secutiry.AuthenticationService;
+import caselab.service.secutiry.UserPrincipalService;
 import caselab.service.users.mapper.UserMapper;
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +46,10 @@ public class ApplicationUserServiceTest {
     private UserUtilService userUtilService;
     @Mock
     private AuthenticationService authService;
+    @Mock
+    private UserPrincipalService userPrincipalService;
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
     private ApplicationUser user1;
     private UserResponse userResponse1;
     private List<ApplicationUser> users;
@@ -179,6 +185,8 @@ public class ApplicationUserServiceTest {
 
         // Проверяем, что метод delete был вызван с нужным пользователем
         verify(userRepository).delete(user1);
+        // Выданные удаленному пользователю токены больше не принимаются
+        verify(accessTokenDenylist).revoke(userEmail);
     }
 
     @Test
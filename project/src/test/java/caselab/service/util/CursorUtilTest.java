@@ -0,0 +1,60 @@
+package caselab.service.util;
+
+import caselab.exception.search.InvalidCursorException;
+import caselab.exception.search.InvalidPageSizeException;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorUtilTest {
+
+    @Test
+    void toPosition_shouldRestoreEncodedKeys() {
+        var createdAt = OffsetDateTime.parse("2024-10-01T12:30:15.123456+03:00");
+        var cursor = CursorUtil.encode(createdAt, 42L);
+
+        var position = CursorUtil.toPosition(cursor, keys -> Map.of(
+            "createdAt", OffsetDateTime.parse(keys.get(0)),
+            "id", Long.valueOf(keys.get(1))
+        ));
+
+        assertThat(position.getKeys()).containsEntry("createdAt", createdAt).containsEntry("id", 42L);
+    }
+
+    @Test
+    void toPosition_shouldReturnInitialPositionWithoutCursor() {
+        var position = CursorUtil.toPosition(null, keys -> Map.of("id", Long.valueOf(keys.get(0))));
+
+        assertThat(position.isInitial()).isTrue();
+    }
+
+    @Test
+    void toPosition_shouldThrowInvalidCursorException() {
+        var cursor = CursorUtil.encode("not-a-number");
+
+        assertThrows(
+            InvalidCursorException.class,
+            () -> CursorUtil.toPosition(cursor, keys -> Map.of("id", Long.valueOf(keys.get(0))))
+        );
+        assertThrows(
+            InvalidCursorException.class,
+            () -> CursorUtil.toPosition("%%%", keys -> Map.of("id", Long.valueOf(keys.get(0))))
+        );
+    }
+
+    @Test
+    void toLimit_shouldUseDefaultPageSize() {
+        assertThat(CursorUtil.toLimit(null)).isEqualTo(PageUtil.DEFAULT_PAGE_SIZE);
+        assertThat(CursorUtil.toLimit(CursorUtil.MAX_PAGE_SIZE)).isEqualTo(CursorUtil.MAX_PAGE_SIZE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, CursorUtil.MAX_PAGE_SIZE + 1})
+    void toLimit_shouldRejectPageSizeOutOfRange(int pageSize) {
+        assertThrows(InvalidPageSizeException.class, () -> CursorUtil.toLimit(pageSize));
+    }
+}
@@ -0,0 +1,99 @@
+package caselab.service.util;
+
+import caselab.domain.entity.ApplicationUser;
+import caselab.domain.entity.Document;
+import caselab.domain.entity.DocumentPermission;
+import caselab.domain.entity.UserToDocument;
+import caselab.domain.entity.enums.DocumentPermissionName;
+import caselab.domain.repository.UserToDocumentRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentPermissionResolverTest {
+
+    @InjectMocks
+    private DocumentPermissionResolver resolver;
+    @Mock
+    private UserToDocumentRepository userToDocumentRepository;
+
+    private ApplicationUser user;
+    private Document editable;
+    private Document readable;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        user = new ApplicationUser();
+        user.setId(1L);
+
+        editable = new Document();
+        editable.setId(1L);
+        readable = new Document();
+        readable.setId(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void preload_shouldAnswerChecksWithoutFurtherQueries() {
+        when(userToDocumentRepository.findAllByApplicationUserIdAndDocumentIdIn(any(), any())).thenReturn(List.of(
+            createUserToDocument(editable, DocumentPermissionName.EDIT),
+            createUserToDocument(readable, DocumentPermissionName.READ)
+        ));
+
+        resolver.preload(user, List.of(1L, 2L, 3L));
+
+        assertTrue(resolver.hasPermission(user, 1L, DocumentPermissionName::canEdit));
+        assertTrue(resolver.hasPermission(user, 2L, DocumentPermissionName::canRead));
+        assertFalse(resolver.hasPermission(user, 2L, DocumentPermissionName::canEdit));
+        assertFalse(resolver.hasPermission(user, 3L, DocumentPermissionName::any));
+        verify(userToDocumentRepository, times(1)).findAllByApplicationUserIdAndDocumentIdIn(any(), any());
+        verify(userToDocumentRepository, times(0)).findByApplicationUserIdAndDocumentId(any(), any());
+    }
+
+    @Test
+    void hasPermission_shouldLoadDocumentOncePerRequest() {
+        when(userToDocumentRepository.findByApplicationUserIdAndDocumentId(1L, 1L))
+            .thenReturn(Optional.of(createUserToDocument(editable, DocumentPermissionName.CREATOR)));
+
+        assertTrue(resolver.hasPermission(user, 1L, DocumentPermissionName::isCreator));
+        assertTrue(resolver.hasPermission(user, 1L, DocumentPermissionName::canRead));
+        verify(userToDocumentRepository, times(1)).findByApplicationUserIdAndDocumentId(1L, 1L);
+    }
+
+    @Test
+    void evict_shouldReloadPermissions() {
+        when(userToDocumentRepository.findByApplicationUserIdAndDocumentId(1L, 2L))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(createUserToDocument(readable, DocumentPermissionName.READ)));
+
+        assertFalse(resolver.hasPermission(user, 2L, DocumentPermissionName::canRead));
+        resolver.evict(2L);
+        assertTrue(resolver.hasPermission(user, 2L, DocumentPermissionName::canRead));
+    }
+
+    private UserToDocument createUserToDocument(Document document, DocumentPermissionName permission) {
+        return new UserToDocument(null, user, document, List.of(new DocumentPermission(null, permission)));
+    }
+}
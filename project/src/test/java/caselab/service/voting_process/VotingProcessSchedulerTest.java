@@ -0,0 +1,104 @@
+package caselab.service.voting_process;
+
+import caselab.configuration.ApplicationConfig;
+import caselab.domain.entity.Document;
+import caselab.domain.entity.DocumentVersion;
+import caselab.domain.entity.VotingProcess;
+import caselab.domain.entity.enums.DocumentStatus;
+import caselab.domain.entity.enums.VotingProcessStatus;
+import caselab.domain.repository.VotingProcessRepository;
+import caselab.service.notification.email.EmailService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class VotingProcessSchedulerTest {
+
+    @Mock
+    private VotingProcessRepository votingProcessRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private VotingProcessScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new ApplicationConfig.Scheduler(true, Duration.ofMinutes(5), Duration.ofSeconds(10), 2);
+        scheduler = new VotingProcessScheduler(
+            votingProcessRepository, emailService, transactionTemplate, taskScheduler, properties
+        );
+    }
+
+    @Test
+    void deadlineProcessing_shouldCloseExpiredInBatchesAndScheduleNearestDeadline() {
+        var first = createVotingProcess();
+        var second = createVotingProcess();
+        var third = createVotingProcess();
+        var nearestDeadline = OffsetDateTime.now().plusMinutes(1);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(votingProcessRepository.findExpiredForUpdate(any(), anyInt()))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+        when(votingProcessRepository.findNearestDeadline(VotingProcessStatus.IN_PROGRESS))
+            .thenReturn(Optional.of(nearestDeadline));
+
+        scheduler.deadlineProcessing();
+
+        verify(votingProcessRepository, times(2)).findExpiredForUpdate(any(), eq(2));
+        assertNotEquals(VotingProcessStatus.IN_PROGRESS, third.getStatus());
+        assertNotEquals(DocumentStatus.VOTING_IN_PROGRESS, third.getDocumentVersion().getDocument().getStatus());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(nearestDeadline.toInstant()));
+    }
+
+    @Test
+    void scheduleWakeup_shouldKeepEarlierWakeup() {
+        var earlier = OffsetDateTime.now().plusMinutes(1);
+        var later = earlier.plusMinutes(1);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+            .thenAnswer(invocation -> mock(ScheduledFuture.class));
+
+        scheduler.scheduleWakeup(earlier);
+        scheduler.scheduleWakeup(later);
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    private VotingProcess createVotingProcess() {
+        var document = new Document();
+        document.setStatus(DocumentStatus.VOTING_IN_PROGRESS);
+        var documentVersion = new DocumentVersion();
+        documentVersion.setDocument(document);
+
+        var votingProcess = new VotingProcess();
+        votingProcess.setStatus(VotingProcessStatus.IN_PROGRESS);
+        votingProcess.setThreshold(0.5);
+        votingProcess.setDocumentVersion(documentVersion);
+        votingProcess.setVotes(List.of());
+        return votingProcess;
+    }
+}